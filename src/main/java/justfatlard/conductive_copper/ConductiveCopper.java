@@ -1,23 +1,35 @@
 package justfatlard.conductive_copper;
 
+import justfatlard.conductive_copper.solver.CopperNetwork;
+import justfatlard.conductive_copper.solver.CopperSolver;
+import justfatlard.conductive_copper.solver.CopperView;
+import justfatlard.conductive_copper.solver.DijkstraCopperSolver;
+import justfatlard.conductive_copper.stress.CopperStressHarness;
+import justfatlard.conductive_copper.trace.CopperTrace;
+import justfatlard.conductive_copper.trace.CopperTraceRecorder;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.Set;
 
 public class ConductiveCopper implements ModInitializer {
     public static final String MOD_ID = "conductive_copper";
+    public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
+
+    private static final CopperSolver SOLVER = new DijkstraCopperSolver();
 
     // All copper blocks that can conduct redstone (unwaxed and waxed)
     private static final Set<Block> CONDUCTIVE_COPPER_BLOCKS = Set.of(
@@ -93,6 +105,13 @@ public class ConductiveCopper implements ModInitializer {
         Blocks.WAXED_OXIDIZED_COPPER_BULB
     );
 
+    private static final Set<Block> COPPER_BULBS = Set.of(
+        Blocks.COPPER_BULB, Blocks.EXPOSED_COPPER_BULB,
+        Blocks.WEATHERED_COPPER_BULB, Blocks.OXIDIZED_COPPER_BULB,
+        Blocks.WAXED_COPPER_BULB, Blocks.WAXED_EXPOSED_COPPER_BULB,
+        Blocks.WAXED_WEATHERED_COPPER_BULB, Blocks.WAXED_OXIDIZED_COPPER_BULB
+    );
+
     // Maps blocks to their oxidation level (resistance per block)
     // Unoxidized = 0, Exposed = 1, Weathered = 2, Oxidized = 3
     private static final Map<Block, Integer> OXIDATION_RESISTANCE = new HashMap<>();
@@ -156,7 +175,16 @@ public class ConductiveCopper implements ModInitializer {
 
     @Override
     public void onInitialize() {
-        System.out.println("[" + MOD_ID + "] Conductive Copper loaded!");
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) ->
+            ConductiveCopperCommands.register(dispatcher));
+        ServerTickEvents.START_WORLD_TICK.register(CopperStormMonitor::onWorldTick);
+        ServerTickEvents.START_SERVER_TICK.register(CopperStressHarness::onStartTick);
+        ServerTickEvents.END_SERVER_TICK.register(CopperStressHarness::onEndTick);
+        ServerLifecycleEvents.SERVER_STARTED.register(CopperStressHarness::onServerStarted);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> CopperTraceRecorder.stop());
+        ServerLifecycleEvents.SERVER_STOPPING.register(CopperStressHarness::onServerStopping);
+
+        LOGGER.info("Conductive Copper loaded!");
     }
 
     /**
@@ -171,132 +199,35 @@ public class ConductiveCopper implements ModInitializer {
         return isConductiveCopper(state.getBlock());
     }
 
-    /**
-     * Helper class for Dijkstra priority queue - tracks position and accumulated resistance
-     */
-    private static class CopperNode implements Comparable<CopperNode> {
-        final BlockPos pos;
-        final int resistance;
-
-        CopperNode(BlockPos pos, int resistance) {
-            this.pos = pos;
-            this.resistance = resistance;
-        }
-
-        @Override
-        public int compareTo(CopperNode other) {
-            return Integer.compare(this.resistance, other.resistance);
-        }
+    public static boolean isCopperBulb(BlockState state) {
+        return COPPER_BULBS.contains(state.getBlock());
     }
 
     /**
      * Trace through connected copper blocks to find the signal strength
      * that should be received from a copper network.
      *
-     * Uses Dijkstra's algorithm to find minimum-resistance paths through the copper network.
-     * Resistance is based on oxidation level: Unoxidized=0, Exposed=1, Weathered=2, Oxidized=3
-     * Final signal = source_power - accumulated_resistance
+     * The search itself lives in {@link DijkstraCopperSolver}, which reads the world through a
+     * {@link CopperView} so it can also be replayed offline from a recorded trace.
      */
     public static int getSignalThroughCopper(World world, BlockPos copperPos, Direction fromDirection) {
-        Map<BlockPos, Integer> minResistance = new HashMap<>();
-        PriorityQueue<CopperNode> toVisit = new PriorityQueue<>();
-        int maxSignal = 0;
-
-        BlockState startState = world.getBlockState(copperPos);
-        int startResistance = getResistance(startState);
-        toVisit.add(new CopperNode(copperPos, startResistance));
-        minResistance.put(copperPos, startResistance);
-
-        while (!toVisit.isEmpty()) {
-            CopperNode node = toVisit.poll();
-            BlockPos current = node.pos;
-            int currentResistance = node.resistance;
-
-            if (currentResistance > minResistance.getOrDefault(current, Integer.MAX_VALUE)) {
-                continue;
-            }
-
-            for (Direction dir : Direction.values()) {
-                BlockPos neighborPos = current.offset(dir);
-                BlockState neighborState = world.getBlockState(neighborPos);
-
-                if (isConductiveCopper(neighborState)) {
-                    int neighborResistance = currentResistance + getResistance(neighborState);
-
-                    if (neighborResistance < minResistance.getOrDefault(neighborPos, Integer.MAX_VALUE)) {
-                        minResistance.put(neighborPos, neighborResistance);
-                        toVisit.add(new CopperNode(neighborPos, neighborResistance));
-                    }
-                } else {
-                    // Skip the original direction we came from to avoid feedback loops
-                    if (current.equals(copperPos) && dir == fromDirection) {
-                        continue;
-                    }
-
-                    int power = 0;
-
-                    // Special handling for redstone wire: trace through wire network to find
-                    // original power sources (levers, repeaters, etc.) - NOT copper-boosted power
-                    if (neighborState.getBlock() == Blocks.REDSTONE_WIRE) {
-                        power = traceWireNetworkPower(world, neighborPos);
-                    } else {
-                        Direction queryDir = dir.getOpposite();
-                        int weakPower = neighborState.getWeakRedstonePower(world, neighborPos, queryDir);
-                        int strongPower = neighborState.getStrongRedstonePower(world, neighborPos, queryDir);
-                        power = Math.max(weakPower, strongPower);
-                    }
-
-                    if (power > 0) {
-                        int effectivePower = Math.max(0, power - currentResistance);
-                        maxSignal = Math.max(maxSignal, effectivePower);
-                    }
-                }
-            }
-        }
-
-        return maxSignal;
+        return getSignalThroughCopper(world, copperPos, fromDirection, CopperTrace.Hook.DIRECT);
     }
 
     /**
-     * Trace through a wire network to find original power sources (levers, repeaters, etc.)
-     * This avoids using copper-boosted power values by following wires back to their source.
+     * Same as {@link #getSignalThroughCopper(World, BlockPos, Direction)}, tagged with the hook
+     * asking so recorded traces can tell wire, bulb and emission queries apart.
      */
-    private static int traceWireNetworkPower(World world, BlockPos wirePos) {
-        Set<BlockPos> visitedWires = new HashSet<>();
-        Queue<BlockPos> wiresToCheck = new LinkedList<>();
-        int maxPower = 0;
-
-        wiresToCheck.add(wirePos);
-        visitedWires.add(wirePos);
-
-        while (!wiresToCheck.isEmpty()) {
-            BlockPos currentWire = wiresToCheck.poll();
-
-            for (Direction dir : Direction.values()) {
-                BlockPos adjacentPos = currentWire.offset(dir);
-
-                if (visitedWires.contains(adjacentPos)) {
-                    continue;
-                }
-
-                BlockState adjacentState = world.getBlockState(adjacentPos);
-
-                if (isConductiveCopper(adjacentState)) {
-                    continue;
-                }
-
-                if (adjacentState.getBlock() == Blocks.REDSTONE_WIRE) {
-                    visitedWires.add(adjacentPos);
-                    wiresToCheck.add(adjacentPos);
-                } else {
-                    int srcPower = adjacentState.getWeakRedstonePower(world, adjacentPos, dir.getOpposite());
-                    srcPower = Math.max(srcPower, adjacentState.getStrongRedstonePower(world, adjacentPos, dir.getOpposite()));
-                    maxPower = Math.max(maxPower, srcPower);
-                }
-            }
+    public static int getSignalThroughCopper(World world, BlockPos copperPos, Direction fromDirection, CopperTrace.Hook hook) {
+        CopperCounters.solverCalls++;
+
+        CopperView view = new WorldCopperView(world);
+
+        if (CopperTraceRecorder.isRecording() && !world.isClient()) {
+            return CopperTraceRecorder.recordQuery(world, hook, SOLVER, view, copperPos, fromDirection);
         }
 
-        return maxPower;
+        return SOLVER.getSignal(view, copperPos.asLong(), fromDirection.ordinal());
     }
 
     /**
@@ -328,38 +259,23 @@ public class ConductiveCopper implements ModInitializer {
         try {
             IS_PROPAGATING_FROM_WIRE.set(true);
 
-            Set<BlockPos> visited = new HashSet<>();
-            Set<BlockPos> wiresToUpdate = new HashSet<>();
-            Queue<BlockPos> toVisit = new LinkedList<>();
-
-            toVisit.add(copperPos);
-            visited.add(copperPos);
-
-            while (!toVisit.isEmpty()) {
-                BlockPos current = toVisit.poll();
-
-                for (Direction dir : Direction.values()) {
-                    BlockPos neighborPos = current.offset(dir);
+            CopperNetwork network = CopperNetworkCache.get(world, copperPos);
+            long sourceWire = sourceWirePos.asLong();
+            long[] wiresToUpdate = Arrays.stream(network.getSinks()).filter(pos -> pos != sourceWire).toArray();
 
-                    if (visited.contains(neighborPos)) {
-                        continue;
-                    }
+            CopperCounters.propagations++;
 
-                    BlockState neighborState = world.getBlockState(neighborPos);
+            boolean allowed = CopperStormMonitor.allowPropagation(world, network.getKey(), network.getSize());
+            CopperTraceRecorder.recordPropagation(world, CopperTrace.Trigger.POWERED_WIRE, copperPos, network, wiresToUpdate.length, !allowed);
 
-                    if (isConductiveCopper(neighborState)) {
-                        visited.add(neighborPos);
-                        toVisit.add(neighborPos);
-                    } else if (neighborState.getBlock() == Blocks.REDSTONE_WIRE) {
-                        if (!neighborPos.equals(sourceWirePos)) {
-                            wiresToUpdate.add(neighborPos);
-                        }
-                    }
-                }
+            if (!allowed) {
+                CopperStormMonitor.defer(world, wiresToUpdate);
+                return;
             }
 
-            for (BlockPos wirePos : wiresToUpdate) {
-                world.updateNeighbor(wirePos, Blocks.COPPER_BLOCK, null);
+            for (long wirePos : wiresToUpdate) {
+                CopperCounters.neighborUpdates++;
+                world.updateNeighbor(BlockPos.fromLong(wirePos), Blocks.COPPER_BLOCK, null);
             }
         } finally {
             IS_PROPAGATING_FROM_WIRE.set(false);
@@ -0,0 +1,209 @@
+package justfatlard.conductive_copper;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import justfatlard.conductive_copper.solver.CopperNetwork;
+import justfatlard.conductive_copper.solver.CopperPos;
+import justfatlard.conductive_copper.stress.CopperStressHarness;
+import justfatlard.conductive_copper.stress.StressScenario;
+import justfatlard.conductive_copper.trace.CopperTraceRecorder;
+import net.minecraft.command.CommandSource;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Admin commands under /conductivecopper.
+ *
+ * /conductivecopper storms        - list detected copper update storms with coordinates
+ * /conductivecopper storms clear  - forget storms that have subsided
+ * /conductivecopper stress (scenario|all) (size) [ticks] - build and time stress scenarios just east of you
+ * /conductivecopper networks     - memory used by cached copper networks in this dimension, largest first
+ * /conductivecopper networks refresh - same, after re-solving signals of every cached network in this dimension
+ * /conductivecopper trace start|stop - record solver queries to a trace file for CopperTraceReplayer
+ */
+public final class ConductiveCopperCommands {
+    private static final int STRESS_OFFSET = 3;
+
+    private ConductiveCopperCommands() {
+    }
+
+    public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(CommandManager.literal("conductivecopper")
+            .requires(source -> source.hasPermissionLevel(2))
+            .then(CommandManager.literal("storms")
+                .executes(ConductiveCopperCommands::listStorms)
+                .then(CommandManager.literal("clear")
+                    .executes(ConductiveCopperCommands::clearStorms)))
+            .then(CommandManager.literal("stress")
+                .then(CommandManager.argument("scenario", StringArgumentType.word())
+                    .suggests((context, builder) -> CommandSource.suggestMatching(getScenarioIds(), builder))
+                    .then(CommandManager.argument("size", IntegerArgumentType.integer(1, CopperStressHarness.MAX_SIZE))
+                        .executes(context -> startStress(context, CopperStressHarness.DEFAULT_TICKS))
+                        .then(CommandManager.argument("ticks", IntegerArgumentType.integer(1, CopperStressHarness.MAX_TICKS))
+                            .executes(context -> startStress(context, IntegerArgumentType.getInteger(context, "ticks")))))))
+            .then(CommandManager.literal("networks")
+                .executes(context -> listNetworks(context, false))
+                .then(CommandManager.literal("refresh")
+                    .executes(context -> listNetworks(context, true))))
+            .then(CommandManager.literal("trace")
+                .then(CommandManager.literal("start")
+                    .executes(ConductiveCopperCommands::startTrace))
+                .then(CommandManager.literal("stop")
+                    .executes(ConductiveCopperCommands::stopTrace))));
+    }
+
+    private static List<String> getScenarioIds() {
+        List<String> ids = new ArrayList<>();
+        ids.add("all");
+        for (StressScenario scenario : StressScenario.values()) {
+            ids.add(scenario.id());
+        }
+        return ids;
+    }
+
+    private static int listStorms(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        List<CopperStormMonitor.StormReport> reports = CopperStormMonitor.getReports();
+
+        if (reports.isEmpty()) {
+            source.sendFeedback(() -> Text.literal("No copper update storms detected"), false);
+            return 0;
+        }
+
+        for (CopperStormMonitor.StormReport report : reports) {
+            String line = String.format("%s %s [%s] %d blocks, peak %d propagations/tick, ticks %d-%d",
+                report.active ? "ACTIVE" : "subsided",
+                report.pos.toShortString(),
+                report.dimension,
+                report.networkSize,
+                report.peakPerTick,
+                report.startTick,
+                report.lastTick);
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+
+        return reports.size();
+    }
+
+    private static int clearStorms(CommandContext<ServerCommandSource> context) {
+        CopperStormMonitor.clearReports();
+        context.getSource().sendFeedback(() -> Text.literal("Cleared subsided copper update storms"), true);
+        return 1;
+    }
+
+    private static int startStress(CommandContext<ServerCommandSource> context, int ticks) {
+        ServerCommandSource source = context.getSource();
+        String id = StringArgumentType.getString(context, "scenario");
+        int size = IntegerArgumentType.getInteger(context, "size");
+
+        List<StressScenario> scenarios;
+        if (id.equals("all")) {
+            scenarios = Arrays.asList(StressScenario.values());
+        } else if (StressScenario.byId(id) != null) {
+            scenarios = List.of(StressScenario.byId(id));
+        } else {
+            source.sendError(Text.literal("Unknown stress scenario: " + id));
+            return 0;
+        }
+
+        // Scenarios grow east and south from the origin and reach one block west of it,
+        // so starting a few blocks east keeps the build clear of the player
+        BlockPos origin = BlockPos.ofFloored(source.getPosition()).east(STRESS_OFFSET);
+        boolean started = CopperStressHarness.start(source.getWorld(), origin, scenarios, size, ticks,
+            message -> source.sendFeedback(() -> Text.literal(message), true), false);
+
+        if (!started) {
+            source.sendError(Text.literal("A copper stress run is already in progress"));
+            return 0;
+        }
+
+        return scenarios.size();
+    }
+
+    /**
+     * Sources and their bytes are as of each network's last signal solve unless refresh is set.
+     * Refreshing runs a full solve, wire network traces included, for every cached network in
+     * the dimension on the server thread, so it can take a noticeable tick on large builds.
+     * It happens before totalling so the total, the order and each line agree.
+     */
+    private static int listNetworks(CommandContext<ServerCommandSource> context, boolean refresh) {
+        ServerCommandSource source = context.getSource();
+        List<CopperNetwork> networks = CopperNetworkCache.getNetworks(source.getWorld());
+
+        if (refresh) {
+            WorldCopperView view = new WorldCopperView(source.getWorld());
+            for (CopperNetwork network : networks) {
+                network.solveSignals(view);
+            }
+        }
+
+        long totalBytes = 0;
+        long totalBlocks = 0;
+        for (CopperNetwork network : networks) {
+            totalBytes += network.estimateBytes();
+            totalBlocks += network.getSize();
+        }
+
+        String summary = String.format("%d cached copper networks, %d blocks, %.1f KiB (limit %d networks)",
+            networks.size(), totalBlocks, totalBytes / 1024.0, CopperNetworkCache.MAX_NETWORKS);
+        source.sendFeedback(() -> Text.literal(summary), false);
+
+        networks.sort(Comparator.comparingLong(CopperNetwork::estimateBytes).reversed());
+
+        for (CopperNetwork network : networks.subList(0, Math.min(10, networks.size()))) {
+            String line = String.format("%s to %s: %d blocks, %d sinks, %d sources, %s, %d bytes",
+                CopperPos.toString(network.getMin()),
+                CopperPos.toString(network.getMax()),
+                network.getSize(),
+                network.getSinks().length,
+                network.getSources().length,
+                network.isDense() ? "dense" : "sparse",
+                network.estimateBytes());
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+
+        return networks.size();
+    }
+
+    private static int startTrace(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+
+        if (CopperTraceRecorder.isRecording()) {
+            source.sendError(Text.literal("Already recording a copper trace"));
+            return 0;
+        }
+
+        try {
+            Path file = CopperTraceRecorder.start();
+            source.sendFeedback(() -> Text.literal("Recording copper trace to " + file), true);
+            return 1;
+        } catch (IOException e) {
+            source.sendError(Text.literal("Failed to start copper trace: " + e.getMessage()));
+            return 0;
+        }
+    }
+
+    private static int stopTrace(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        String summary = CopperTraceRecorder.stop();
+
+        if (summary == null) {
+            source.sendError(Text.literal("No copper trace is being recorded"));
+            return 0;
+        }
+
+        source.sendFeedback(() -> Text.literal("Copper trace stopped: " + summary), true);
+        return 1;
+    }
+}
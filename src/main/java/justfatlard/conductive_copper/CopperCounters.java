@@ -0,0 +1,23 @@
+package justfatlard.conductive_copper;
+
+/**
+ * Running totals of the work done by the copper solver, read by the stress harness.
+ * Only touched from the server thread, so plain fields are enough.
+ */
+public final class CopperCounters {
+    // Calls to ConductiveCopper.getSignalThroughCopper
+    public static long solverCalls;
+    // Copper network traversals triggered by neighbor updates or powered wires
+    public static long propagations;
+    // Neighbor updates issued by the mod to wires and bulbs touching a network
+    public static long neighborUpdates;
+    // Neighbor updates pushed to the next tick by CopperStormMonitor
+    public static long deferredUpdates;
+
+    private CopperCounters() {
+    }
+
+    public static long[] snapshot() {
+        return new long[]{solverCalls, propagations, neighborUpdates, deferredUpdates};
+    }
+}
@@ -0,0 +1,198 @@
+package justfatlard.conductive_copper;
+
+import justfatlard.conductive_copper.solver.CopperNetwork;
+import justfatlard.conductive_copper.solver.CopperPos;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps traversed copper networks resident as compact {@link CopperNetwork}s, so propagating
+ * an update doesn't walk the whole network again every time.
+ *
+ * Networks are indexed by the chunk sections holding their members. A cached network is
+ * dropped when a copper block or wire appears, disappears or changes type at one of its members
+ * or right next to one; power and bulb state changes keep the block the same and don't matter.
+ */
+public final class CopperNetworkCache {
+    public static final int MAX_NETWORKS = Integer.getInteger("conductive_copper.cache.maxNetworks", 8192);
+
+    private static final Map<World, WorldCache> WORLDS = new WeakHashMap<>();
+
+    private CopperNetworkCache() {
+    }
+
+    private static class WorldCache {
+        final Map<Long, List<CopperNetwork>> bySection = new HashMap<>();
+        final Set<CopperNetwork> networks = new HashSet<>();
+    }
+
+    private static long sectionKey(long pos) {
+        return CopperPos.pack(CopperPos.getX(pos) >> 4, CopperPos.getY(pos) >> 4, CopperPos.getZ(pos) >> 4);
+    }
+
+    /**
+     * The network containing the copper block at pos, traversing and caching it if needed.
+     */
+    public static CopperNetwork get(World world, BlockPos pos) {
+        WorldCache cache = WORLDS.computeIfAbsent(world, w -> new WorldCache());
+        long packed = pos.asLong();
+        List<CopperNetwork> candidates = cache.bySection.get(sectionKey(packed));
+
+        if (candidates != null) {
+            for (CopperNetwork network : candidates) {
+                if (network.contains(packed)) {
+                    return network;
+                }
+            }
+        }
+
+        // Simplest bound on memory: start over rather than track recency
+        if (cache.networks.size() >= MAX_NETWORKS) {
+            cache.bySection.clear();
+            cache.networks.clear();
+        }
+
+        CopperNetwork network = traverse(world, pos);
+        cache.networks.add(network);
+        for (long key : sectionsOf(network)) {
+            cache.bySection.computeIfAbsent(key, k -> new ArrayList<>(2)).add(network);
+        }
+        return network;
+    }
+
+    /**
+     * Called for every block change in a server world where the block itself changed.
+     */
+    public static void onBlockChanged(World world, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (!isNetworkBlock(oldState) && !isNetworkBlock(newState)) {
+            return;
+        }
+
+        WorldCache cache = WORLDS.get(world);
+        if (cache == null || cache.networks.isEmpty()) {
+            return;
+        }
+
+        // A member changed, or a neighbor that could join the network or be one of its sinks
+        long packed = pos.asLong();
+        List<CopperNetwork> stale = new ArrayList<>();
+
+        for (int dir = -1; dir < CopperPos.DIRECTIONS; dir++) {
+            long checkPos = dir < 0 ? packed : CopperPos.offset(packed, dir);
+            List<CopperNetwork> candidates = cache.bySection.get(sectionKey(checkPos));
+
+            if (candidates == null) {
+                continue;
+            }
+
+            for (CopperNetwork network : candidates) {
+                if (network.contains(checkPos) && !stale.contains(network)) {
+                    stale.add(network);
+                }
+            }
+        }
+
+        for (CopperNetwork network : stale) {
+            cache.networks.remove(network);
+            for (long key : sectionsOf(network)) {
+                List<CopperNetwork> section = cache.bySection.get(key);
+                if (section != null) {
+                    section.remove(network);
+                    if (section.isEmpty()) {
+                        cache.bySection.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    public static List<CopperNetwork> getNetworks(World world) {
+        WorldCache cache = WORLDS.get(world);
+        return cache == null ? new ArrayList<>() : new ArrayList<>(cache.networks);
+    }
+
+    private static boolean isNetworkBlock(BlockState state) {
+        return ConductiveCopper.isConductiveCopper(state) || state.getBlock() == Blocks.REDSTONE_WIRE;
+    }
+
+    /**
+     * Sorted, distinct keys of the sections holding at least one member; a long run through
+     * a large, mostly empty bounding box only touches the sections along its path.
+     */
+    private static long[] sectionsOf(CopperNetwork network) {
+        long[] keys = new long[network.getSize()];
+        int[] count = {0};
+
+        network.forEachMember((pos, resistance) -> keys[count[0]++] = sectionKey(pos));
+        Arrays.sort(keys);
+
+        int unique = 1;
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] != keys[unique - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+
+        return Arrays.copyOf(keys, unique);
+    }
+
+    /**
+     * Find all copper blocks in the network, the redstone wires touching them and the bulbs among them.
+     */
+    private static CopperNetwork traverse(World world, BlockPos startPos) {
+        CopperNetwork.Builder builder = new CopperNetwork.Builder();
+        Set<BlockPos> visitedCopper = new HashSet<>();
+        Queue<BlockPos> toVisit = new LinkedList<>();
+
+        BlockState startState = world.getBlockState(startPos);
+        builder.addMember(startPos.asLong(), ConductiveCopper.getResistance(startState));
+        if (ConductiveCopper.isCopperBulb(startState)) {
+            builder.addBulb(startPos.asLong());
+        }
+
+        toVisit.add(startPos);
+        visitedCopper.add(startPos);
+
+        while (!toVisit.isEmpty()) {
+            BlockPos current = toVisit.poll();
+
+            for (Direction dir : Direction.values()) {
+                BlockPos neighborPos = current.offset(dir);
+
+                if (visitedCopper.contains(neighborPos)) {
+                    continue;
+                }
+
+                BlockState neighborState = world.getBlockState(neighborPos);
+
+                if (ConductiveCopper.isConductiveCopper(neighborState)) {
+                    visitedCopper.add(neighborPos);
+                    toVisit.add(neighborPos);
+                    builder.addMember(neighborPos.asLong(), ConductiveCopper.getResistance(neighborState));
+
+                    if (ConductiveCopper.isCopperBulb(neighborState)) {
+                        builder.addBulb(neighborPos.asLong());
+                    }
+                } else if (neighborState.getBlock() == Blocks.REDSTONE_WIRE) {
+                    builder.addSink(neighborPos.asLong());
+                }
+            }
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,211 @@
+package justfatlard.conductive_copper;
+
+import net.minecraft.block.Blocks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Detects copper networks that keep re-propagating (wire -> copper -> wire feedback loops)
+ * and damps them so a single contraption can't flood the server with neighbor updates.
+ *
+ * A network that propagates more than {@link #TICK_BUDGET} times in one tick has the rest of
+ * its updates for that tick deferred to the next tick. A network that blows its budget for
+ * {@link #SUSTAIN_TICKS} consecutive ticks is flagged as a storm, logged with its coordinates
+ * and capped to {@link #STORM_BUDGET} propagations per tick until it calms down.
+ *
+ * Limits are read from system properties, e.g. -Dconductive_copper.storm.tickBudget=64
+ */
+public final class CopperStormMonitor {
+    public static final int TICK_BUDGET = Integer.getInteger("conductive_copper.storm.tickBudget", 32);
+    public static final int SUSTAIN_TICKS = Integer.getInteger("conductive_copper.storm.sustainTicks", 20);
+    public static final int STORM_BUDGET = Integer.getInteger("conductive_copper.storm.stormBudget", 1);
+
+    private static final int MAX_REPORTS = 16;
+    private static final int PRUNE_INTERVAL = 20;
+
+    private static final Map<World, WorldState> WORLDS = new WeakHashMap<>();
+    private static final LinkedList<StormReport> REPORTS = new LinkedList<>();
+
+    private CopperStormMonitor() {
+    }
+
+    /**
+     * Propagation stats for one copper network, keyed by its smallest packed member position.
+     */
+    private static class NetworkStats {
+        long tick = Long.MIN_VALUE;
+        int count;
+        long lastHotTick = Long.MIN_VALUE;
+        int hotStreak;
+        StormReport storm;
+    }
+
+    private static class WorldState {
+        final Map<Long, NetworkStats> networks = new HashMap<>();
+        // Counted here rather than read from world time, which is frozen by /tick freeze and only
+        // advances after START_WORLD_TICK, so deferred updates would land in the tick that deferred them
+        long tick;
+        Set<BlockPos> deferred = new LinkedHashSet<>();
+    }
+
+    /**
+     * A detected storm. Kept after the storm subsides so it can still be inspected.
+     * Start and last tick are world time, for matching against the log.
+     */
+    public static class StormReport {
+        public final Identifier dimension;
+        public final BlockPos pos;
+        public final long startTick;
+        public int networkSize;
+        public int peakPerTick;
+        public long lastTick;
+        public boolean active = true;
+
+        StormReport(Identifier dimension, BlockPos pos, long startTick) {
+            this.dimension = dimension;
+            this.pos = pos;
+            this.startTick = startTick;
+            this.lastTick = startTick;
+        }
+    }
+
+    private static WorldState getState(World world) {
+        return WORLDS.computeIfAbsent(world, w -> new WorldState());
+    }
+
+    /**
+     * Record a propagation of the network identified by networkKey and decide whether it may run now.
+     * When this returns false the caller should hand its update targets to {@link #defer}.
+     */
+    public static boolean allowPropagation(World world, long networkKey, int networkSize) {
+        WorldState state = getState(world);
+        long now = state.tick;
+        NetworkStats stats = state.networks.computeIfAbsent(networkKey, k -> new NetworkStats());
+
+        if (stats.tick != now) {
+            stats.tick = now;
+            stats.count = 0;
+        }
+
+        stats.count++;
+
+        // A storming network stays hot as long as it keeps exceeding its reduced budget
+        int budget = stats.storm != null ? STORM_BUDGET : TICK_BUDGET;
+
+        if (stats.count == budget + 1) {
+            stats.hotStreak = stats.lastHotTick == now - 1 ? stats.hotStreak + 1 : 1;
+            stats.lastHotTick = now;
+
+            if (stats.hotStreak >= SUSTAIN_TICKS && stats.storm == null) {
+                stats.storm = reportStorm(world, networkKey);
+                budget = STORM_BUDGET;
+            }
+        }
+
+        if (stats.storm != null) {
+            stats.storm.networkSize = networkSize;
+            stats.storm.peakPerTick = Math.max(stats.storm.peakPerTick, stats.count);
+            stats.storm.lastTick = world.getTime();
+        }
+
+        return stats.count <= budget;
+    }
+
+    /**
+     * Queue neighbor updates that were damped this tick; they are delivered at the start of the next tick.
+     */
+    public static void defer(World world, Iterable<BlockPos> targets) {
+        Set<BlockPos> deferred = getState(world).deferred;
+
+        for (BlockPos pos : targets) {
+            CopperCounters.deferredUpdates++;
+            deferred.add(pos.toImmutable());
+        }
+    }
+
+    public static void defer(World world, long[] targets) {
+        Set<BlockPos> deferred = getState(world).deferred;
+
+        for (long pos : targets) {
+            CopperCounters.deferredUpdates++;
+            deferred.add(BlockPos.fromLong(pos));
+        }
+    }
+
+    /**
+     * Deliver updates deferred during the previous tick and forget networks that have gone quiet.
+     * Registered on the start of every server world tick.
+     */
+    public static void onWorldTick(ServerWorld world) {
+        WorldState state = WORLDS.get(world);
+
+        if (state == null) {
+            return;
+        }
+
+        long now = ++state.tick;
+
+        if (!state.deferred.isEmpty()) {
+            Set<BlockPos> deferred = state.deferred;
+            state.deferred = new LinkedHashSet<>();
+
+            for (BlockPos pos : deferred) {
+                CopperCounters.neighborUpdates++;
+                world.updateNeighbor(pos, Blocks.COPPER_BLOCK, null);
+            }
+        }
+
+        if (now % PRUNE_INTERVAL != 0) {
+            return;
+        }
+
+        state.networks.entrySet().removeIf(entry -> {
+            NetworkStats stats = entry.getValue();
+
+            if (stats.storm != null && now - stats.lastHotTick > SUSTAIN_TICKS) {
+                stats.storm.active = false;
+                ConductiveCopper.LOGGER.info("Copper update storm at {} in {} subsided after {} ticks",
+                    stats.storm.pos.toShortString(), stats.storm.dimension, stats.storm.lastTick - stats.storm.startTick);
+                stats.storm = null;
+            }
+
+            return stats.storm == null && now - stats.tick > SUSTAIN_TICKS;
+        });
+    }
+
+    private static StormReport reportStorm(World world, long networkKey) {
+        StormReport report = new StormReport(world.getRegistryKey().getValue(), BlockPos.fromLong(networkKey), world.getTime());
+
+        ConductiveCopper.LOGGER.warn("Copper update storm at {} in {}: over {} propagations per tick for {} ticks, capping to {} per tick",
+            report.pos.toShortString(), report.dimension, TICK_BUDGET, SUSTAIN_TICKS, STORM_BUDGET);
+
+        REPORTS.addFirst(report);
+        if (REPORTS.size() > MAX_REPORTS) {
+            REPORTS.removeLast();
+        }
+
+        return report;
+    }
+
+    /**
+     * Most recent storms first, active and subsided.
+     */
+    public static List<StormReport> getReports() {
+        return new ArrayList<>(REPORTS);
+    }
+
+    public static void clearReports() {
+        REPORTS.removeIf(report -> !report.active);
+    }
+}
@@ -0,0 +1,55 @@
+package justfatlard.conductive_copper;
+
+import justfatlard.conductive_copper.solver.CopperView;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+
+/**
+ * {@link CopperView} over a live world. One instance per solver call.
+ */
+final class WorldCopperView implements CopperView {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final World world;
+    private final BlockPos.Mutable cursor = new BlockPos.Mutable();
+
+    // The solver usually asks resistanceAt then isWire for the same position
+    private long cachedPos;
+    private BlockState cachedState;
+
+    WorldCopperView(World world) {
+        this.world = world;
+    }
+
+    private BlockState getState(long pos) {
+        if (cachedState == null || cachedPos != pos) {
+            cachedState = world.getBlockState(cursor.set(pos));
+            cachedPos = pos;
+        }
+        return cachedState;
+    }
+
+    @Override
+    public int resistanceAt(long pos) {
+        BlockState state = getState(pos);
+        return ConductiveCopper.isConductiveCopper(state) ? ConductiveCopper.getResistance(state) : -1;
+    }
+
+    @Override
+    public boolean isWire(long pos) {
+        return getState(pos).getBlock() == Blocks.REDSTONE_WIRE;
+    }
+
+    @Override
+    public int powerAt(long pos, int direction) {
+        BlockState state = getState(pos);
+        BlockPos blockPos = BlockPos.fromLong(pos);
+        Direction queryDir = DIRECTIONS[direction];
+        int weakPower = state.getWeakRedstonePower(world, blockPos, queryDir);
+        int strongPower = state.getStrongRedstonePower(world, blockPos, queryDir);
+        return Math.max(weakPower, strongPower);
+    }
+}
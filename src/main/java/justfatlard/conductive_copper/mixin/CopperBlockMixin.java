@@ -1,12 +1,17 @@
 package justfatlard.conductive_copper.mixin;
 
 import justfatlard.conductive_copper.ConductiveCopper;
+import justfatlard.conductive_copper.CopperCounters;
+import justfatlard.conductive_copper.CopperNetworkCache;
+import justfatlard.conductive_copper.CopperStormMonitor;
+import justfatlard.conductive_copper.solver.CopperNetwork;
+import justfatlard.conductive_copper.trace.CopperTrace;
+import justfatlard.conductive_copper.trace.CopperTraceRecorder;
 import net.minecraft.block.AbstractBlock;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 import net.minecraft.world.block.WireOrientation;
 import org.spongepowered.asm.mixin.Mixin;
@@ -15,11 +20,6 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
-
 /**
  * Mixin to propagate redstone updates through conductive copper networks.
  * When a copper block receives a neighbor update, it propagates that update
@@ -31,22 +31,6 @@ public class CopperBlockMixin {
     @Unique
     private static final ThreadLocal<Boolean> IS_PROPAGATING = ThreadLocal.withInitial(() -> false);
 
-    @Unique
-    private static Set<Block> copperBulbsCache = null;
-
-    @Unique
-    private static Set<Block> getCopperBulbs() {
-        if (copperBulbsCache == null) {
-            copperBulbsCache = Set.of(
-                Blocks.COPPER_BULB, Blocks.EXPOSED_COPPER_BULB,
-                Blocks.WEATHERED_COPPER_BULB, Blocks.OXIDIZED_COPPER_BULB,
-                Blocks.WAXED_COPPER_BULB, Blocks.WAXED_EXPOSED_COPPER_BULB,
-                Blocks.WAXED_WEATHERED_COPPER_BULB, Blocks.WAXED_OXIDIZED_COPPER_BULB
-            );
-        }
-        return copperBulbsCache;
-    }
-
     @Inject(method = "neighborUpdate", at = @At("HEAD"))
     private void onNeighborUpdate(BlockState state, World world, BlockPos pos, Block sourceBlock, WireOrientation wireOrientation, boolean notify, CallbackInfo ci) {
         if (world.isClient()) {
@@ -74,54 +58,33 @@ public class CopperBlockMixin {
     }
 
     /**
-     * Find all copper blocks in the network and update all redstone wires and bulbs touching them.
+     * Update all redstone wires and bulbs touching the network, using the cached network when there is one.
      */
     @Unique
     private void propagateUpdates(World world, BlockPos startPos) {
-        Set<BlockPos> visitedCopper = new HashSet<>();
-        Set<BlockPos> redstoneToUpdate = new HashSet<>();
-        Set<BlockPos> bulbsToUpdate = new HashSet<>();
-        Queue<BlockPos> toVisit = new LinkedList<>();
+        CopperNetwork network = CopperNetworkCache.get(world, startPos);
 
-        toVisit.add(startPos);
-        visitedCopper.add(startPos);
+        CopperCounters.propagations++;
 
-        while (!toVisit.isEmpty()) {
-            BlockPos current = toVisit.poll();
+        // Feedback loops re-enter here from later neighbor updates, which the ThreadLocal guard can't see
+        boolean allowed = CopperStormMonitor.allowPropagation(world, network.getKey(), network.getSize());
+        CopperTraceRecorder.recordPropagation(world, CopperTrace.Trigger.NEIGHBOR_UPDATE, startPos, network,
+            network.getSinks().length + network.getBulbs().length, !allowed);
 
-            for (Direction dir : Direction.values()) {
-                BlockPos neighborPos = current.offset(dir);
-
-                if (visitedCopper.contains(neighborPos)) {
-                    continue;
-                }
-
-                BlockState neighborState = world.getBlockState(neighborPos);
-
-                if (ConductiveCopper.isConductiveCopper(neighborState)) {
-                    visitedCopper.add(neighborPos);
-                    toVisit.add(neighborPos);
-
-                    if (getCopperBulbs().contains(neighborState.getBlock())) {
-                        bulbsToUpdate.add(neighborPos);
-                    }
-                } else if (neighborState.getBlock() == Blocks.REDSTONE_WIRE) {
-                    redstoneToUpdate.add(neighborPos);
-                }
-            }
-        }
-
-        BlockState startState = world.getBlockState(startPos);
-        if (getCopperBulbs().contains(startState.getBlock())) {
-            bulbsToUpdate.add(startPos);
+        if (!allowed) {
+            CopperStormMonitor.defer(world, network.getSinks());
+            CopperStormMonitor.defer(world, network.getBulbs());
+            return;
         }
 
-        for (BlockPos wirePos : redstoneToUpdate) {
-            world.updateNeighbor(wirePos, Blocks.COPPER_BLOCK, null);
+        for (long wirePos : network.getSinks()) {
+            CopperCounters.neighborUpdates++;
+            world.updateNeighbor(BlockPos.fromLong(wirePos), Blocks.COPPER_BLOCK, null);
         }
 
-        for (BlockPos bulbPos : bulbsToUpdate) {
-            world.updateNeighbor(bulbPos, Blocks.COPPER_BLOCK, null);
+        for (long bulbPos : network.getBulbs()) {
+            CopperCounters.neighborUpdates++;
+            world.updateNeighbor(BlockPos.fromLong(bulbPos), Blocks.COPPER_BLOCK, null);
         }
     }
 }
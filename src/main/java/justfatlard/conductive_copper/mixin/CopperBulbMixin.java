@@ -1,6 +1,7 @@
 package justfatlard.conductive_copper.mixin;
 
 import justfatlard.conductive_copper.ConductiveCopper;
+import justfatlard.conductive_copper.trace.CopperTrace;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -52,7 +53,8 @@ public class CopperBulbMixin {
                 int copperPower = ConductiveCopper.getSignalThroughCopper(
                     world,
                     adjacentPos,
-                    direction.getOpposite()
+                    direction.getOpposite(),
+                    CopperTrace.Hook.BULB
                 );
 
                 if (copperPower > 0) {
@@ -0,0 +1,30 @@
+package justfatlard.conductive_copper.mixin;
+
+import justfatlard.conductive_copper.CopperNetworkCache;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to drop cached copper networks when blocks in or around them change.
+ *
+ * onBlockStateChanged runs for every successful setBlockState on the server, so this sees
+ * copper and wire being placed, broken, moved by pistons or oxidizing.
+ */
+@Mixin(ServerWorld.class)
+public class CopperNetworkCacheMixin {
+
+    @Inject(method = "onBlockStateChanged", at = @At("HEAD"))
+    private void onBlockStateChanged(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo ci) {
+        // Power levels and bulb states don't change the network, only the block itself does
+        if (oldState.getBlock() == newState.getBlock()) {
+            return;
+        }
+
+        CopperNetworkCache.onBlockChanged((ServerWorld) (Object) this, pos, oldState, newState);
+    }
+}
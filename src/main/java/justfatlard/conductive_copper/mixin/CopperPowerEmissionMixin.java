@@ -1,6 +1,7 @@
 package justfatlard.conductive_copper.mixin;
 
 import justfatlard.conductive_copper.ConductiveCopper;
+import justfatlard.conductive_copper.trace.CopperTrace;
 import net.minecraft.block.AbstractBlock;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
@@ -58,7 +59,7 @@ public class CopperPowerEmissionMixin {
 
             // Get the signal conducted through this copper network
             // The direction parameter is the direction FROM which power is being queried
-            int power = ConductiveCopper.getSignalThroughCopper(worldInstance, pos, direction);
+            int power = ConductiveCopper.getSignalThroughCopper(worldInstance, pos, direction, CopperTrace.Hook.EMISSION);
 
             if (power > 0) {
                 cir.setReturnValue(power);
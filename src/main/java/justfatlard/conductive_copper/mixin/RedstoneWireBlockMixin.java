@@ -1,6 +1,7 @@
 package justfatlard.conductive_copper.mixin;
 
 import justfatlard.conductive_copper.ConductiveCopper;
+import justfatlard.conductive_copper.trace.CopperTrace;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
@@ -45,7 +46,8 @@ public class RedstoneWireBlockMixin {
                 int copperSignal = ConductiveCopper.getSignalThroughCopper(
                     world,
                     adjacentPos,
-                    direction.getOpposite()
+                    direction.getOpposite(),
+                    CopperTrace.Hook.WIRE_POWER
                 );
                 maxCopperPower = Math.max(maxCopperPower, copperSignal);
             }
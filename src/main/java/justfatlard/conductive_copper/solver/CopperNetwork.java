@@ -0,0 +1,420 @@
+package justfatlard.conductive_copper.solver;
+
+import java.util.Arrays;
+
+/**
+ * Compact snapshot of one connected copper network, sized for keeping thousands resident.
+ *
+ * Membership is a bitset over the network's bounding box, with a running popcount per word so
+ * every member has a dense rank. Per-member resistance and delivered signal are nibbles indexed
+ * by that rank. Wires touching the network (sinks), copper bulbs inside it and powered blocks
+ * feeding it (sources) are sorted packed positions.
+ *
+ * Networks whose bounding box is mostly empty (long runs turning corners and the like) would make
+ * the bitset huge, so whenever the bitset and its ranks take more room than a sorted array of
+ * packed positions, membership is stored as that array instead, where a member's rank is its index.
+ */
+public final class CopperNetwork {
+    private static final long[] EMPTY = new long[0];
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int size;
+    private final long key;
+
+    // Dense mode: one bit per bounding box cell, x fastest, then z, then y
+    private final long[] memberBits;
+    private final int[] ranks;
+    // Sparse mode: sorted packed positions
+    private final long[] memberList;
+
+    private final byte[] resistance;
+    private final byte[] signal;
+    private final long[] sinks;
+    private final long[] bulbs;
+    private long[] sources = EMPTY;
+
+    /**
+     * Receives each member with its resistance, in rank order.
+     */
+    @FunctionalInterface
+    public interface MemberVisitor {
+        void visit(long pos, int resistance);
+    }
+
+    private CopperNetwork(Builder builder) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        long key = Long.MAX_VALUE;
+
+        for (int i = 0; i < builder.memberCount; i++) {
+            long pos = builder.members[i];
+            minX = Math.min(minX, CopperPos.getX(pos));
+            minY = Math.min(minY, CopperPos.getY(pos));
+            minZ = Math.min(minZ, CopperPos.getZ(pos));
+            maxX = Math.max(maxX, CopperPos.getX(pos));
+            maxY = Math.max(maxY, CopperPos.getY(pos));
+            maxZ = Math.max(maxZ, CopperPos.getZ(pos));
+            key = Math.min(key, pos);
+        }
+
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = maxX - minX + 1;
+        this.sizeY = maxY - minY + 1;
+        this.sizeZ = maxZ - minZ + 1;
+        this.size = builder.memberCount;
+        this.key = key;
+
+        long volume = (long) sizeX * sizeY * sizeZ;
+        long words = (volume + 63) >>> 6;
+
+        // 8 bytes of bits plus 4 of rank per word, against 8 bytes per listed member
+        if (words * 12 <= size * 8L && volume <= Integer.MAX_VALUE) {
+            memberBits = new long[(int) words];
+            for (int i = 0; i < size; i++) {
+                int index = indexOf(builder.members[i]);
+                memberBits[index >>> 6] |= 1L << index;
+            }
+
+            ranks = new int[memberBits.length];
+            for (int w = 1; w < memberBits.length; w++) {
+                ranks[w] = ranks[w - 1] + Long.bitCount(memberBits[w - 1]);
+            }
+
+            memberList = null;
+        } else {
+            memberList = Arrays.copyOf(builder.members, size);
+            Arrays.sort(memberList);
+            memberBits = null;
+            ranks = null;
+        }
+
+        resistance = new byte[(size + 1) >>> 1];
+        signal = new byte[(size + 1) >>> 1];
+        for (int i = 0; i < size; i++) {
+            setNibble(resistance, rankOf(builder.members[i]), builder.resistances[i]);
+        }
+
+        sinks = sortedUnique(builder.sinks, builder.sinkCount);
+        bulbs = sortedUnique(builder.bulbs, builder.bulbCount);
+    }
+
+    private static long[] sortedUnique(long[] values, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+
+        int unique = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+
+        return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+    }
+
+    private static int getNibble(byte[] nibbles, int index) {
+        return (nibbles[index >>> 1] >>> ((index & 1) << 2)) & 0xF;
+    }
+
+    private static void setNibble(byte[] nibbles, int index, int value) {
+        int shift = (index & 1) << 2;
+        nibbles[index >>> 1] = (byte) ((nibbles[index >>> 1] & ~(0xF << shift)) | ((value & 0xF) << shift));
+    }
+
+    /**
+     * Bounding box cell index of pos, or -1 if it lies outside the box.
+     */
+    private int indexOf(long pos) {
+        int x = CopperPos.getX(pos) - minX;
+        int y = CopperPos.getY(pos) - minY;
+        int z = CopperPos.getZ(pos) - minZ;
+
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) {
+            return -1;
+        }
+
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    /**
+     * Rank of the member at pos, or -1 if pos isn't a member.
+     */
+    private int rankOf(long pos) {
+        if (memberList != null) {
+            int index = Arrays.binarySearch(memberList, pos);
+            return index >= 0 ? index : -1;
+        }
+
+        int index = indexOf(pos);
+        if (index < 0) {
+            return -1;
+        }
+
+        long word = memberBits[index >>> 6];
+        long bit = 1L << index;
+
+        if ((word & bit) == 0) {
+            return -1;
+        }
+
+        return ranks[index >>> 6] + Long.bitCount(word & (bit - 1));
+    }
+
+    public boolean contains(long pos) {
+        return rankOf(pos) >= 0;
+    }
+
+    /**
+     * Resistance of the member at pos, or -1 if pos isn't a member.
+     */
+    public int getResistance(long pos) {
+        int rank = rankOf(pos);
+        return rank >= 0 ? getNibble(resistance, rank) : -1;
+    }
+
+    /**
+     * Signal delivered to the member at pos as of the last {@link #solveSignals}, or -1 if pos isn't a member.
+     */
+    public int getSignal(long pos) {
+        int rank = rankOf(pos);
+        return rank >= 0 ? getNibble(signal, rank) : -1;
+    }
+
+    public void forEachMember(MemberVisitor visitor) {
+        if (memberList != null) {
+            for (int rank = 0; rank < memberList.length; rank++) {
+                visitor.visit(memberList[rank], getNibble(resistance, rank));
+            }
+            return;
+        }
+
+        int rank = 0;
+        for (int w = 0; w < memberBits.length; w++) {
+            long word = memberBits[w];
+
+            while (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                int x = index % sizeX;
+                int z = (index / sizeX) % sizeZ;
+                int y = index / sizeX / sizeZ;
+
+                visitor.visit(CopperPos.pack(minX + x, minY + y, minZ + z), getNibble(resistance, rank++));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Recompute the delivered signal of every member and the powered blocks feeding the network.
+     *
+     * Same rule as {@link DijkstraCopperSolver}: a member receives the strongest source power minus
+     * the resistance of every block on the path, both ends included. Runs as one multi-source search
+     * with a bucket per signal level, so it costs about as much as a single solver query. Unlike a
+     * query, no neighbor is excluded as the asker.
+     */
+    public void solveSignals(CopperView view) {
+        long[] positions = new long[size];
+        int[] resistances = new int[size];
+        int[] best = new int[size];
+        int[] cursor = {0};
+
+        forEachMember((pos, r) -> {
+            positions[cursor[0]] = pos;
+            resistances[cursor[0]++] = r;
+        });
+
+        int[][] buckets = new int[16][];
+        int[] bucketSizes = new int[16];
+        long[] found = new long[8];
+        int foundCount = 0;
+
+        for (int rank = 0; rank < size; rank++) {
+            for (int dir = 0; dir < CopperPos.DIRECTIONS; dir++) {
+                long neighborPos = CopperPos.offset(positions[rank], dir);
+
+                if (contains(neighborPos) || view.resistanceAt(neighborPos) >= 0) {
+                    continue;
+                }
+
+                int power = view.isWire(neighborPos)
+                    ? DijkstraCopperSolver.traceWireNetworkPower(view, neighborPos)
+                    : view.powerAt(neighborPos, CopperPos.opposite(dir));
+
+                if (power <= 0) {
+                    continue;
+                }
+
+                if (foundCount == found.length) {
+                    found = Arrays.copyOf(found, foundCount * 2);
+                }
+                found[foundCount++] = neighborPos;
+
+                int value = Math.min(15, power) - resistances[rank];
+                if (value > best[rank]) {
+                    best[rank] = value;
+                    push(buckets, bucketSizes, value, rank);
+                }
+            }
+        }
+
+        for (int level = 15; level > 0; level--) {
+            for (int i = 0; i < bucketSizes[level]; i++) {
+                int rank = buckets[level][i];
+
+                if (best[rank] != level) {
+                    continue;
+                }
+
+                for (int dir = 0; dir < CopperPos.DIRECTIONS; dir++) {
+                    int neighborRank = rankOf(CopperPos.offset(positions[rank], dir));
+
+                    if (neighborRank < 0) {
+                        continue;
+                    }
+
+                    int value = level - resistances[neighborRank];
+                    if (value > best[neighborRank]) {
+                        best[neighborRank] = value;
+                        push(buckets, bucketSizes, value, neighborRank);
+                    }
+                }
+            }
+        }
+
+        for (int rank = 0; rank < size; rank++) {
+            setNibble(signal, rank, best[rank]);
+        }
+
+        sources = sortedUnique(found, foundCount);
+    }
+
+    private static void push(int[][] buckets, int[] bucketSizes, int level, int rank) {
+        if (buckets[level] == null) {
+            buckets[level] = new int[16];
+        } else if (bucketSizes[level] == buckets[level].length) {
+            buckets[level] = Arrays.copyOf(buckets[level], bucketSizes[level] * 2);
+        }
+        buckets[level][bucketSizes[level]++] = rank;
+    }
+
+    /**
+     * Approximate heap footprint in bytes, assuming 16 byte object and array headers.
+     */
+    public long estimateBytes() {
+        long bytes = 16 + 6 * 4 + 4 + 8 + 8 * 8;
+
+        if (memberList != null) {
+            bytes += arrayBytes(memberList.length * 8L);
+        } else {
+            bytes += arrayBytes(memberBits.length * 8L) + arrayBytes(ranks.length * 4L);
+        }
+
+        return bytes + arrayBytes(resistance.length) + arrayBytes(signal.length)
+            + arrayBytes(sinks.length * 8L) + arrayBytes(bulbs.length * 8L) + arrayBytes(sources.length * 8L);
+    }
+
+    private static long arrayBytes(long payload) {
+        return (16 + payload + 7) & ~7L;
+    }
+
+    /**
+     * Smallest packed member position; stable for as long as the network is unchanged.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isDense() {
+        return memberBits != null;
+    }
+
+    public long getMin() {
+        return CopperPos.pack(minX, minY, minZ);
+    }
+
+    public long getMax() {
+        return CopperPos.pack(minX + sizeX - 1, minY + sizeY - 1, minZ + sizeZ - 1);
+    }
+
+    /**
+     * Redstone wires touching the network, sorted. Callers must not modify the array.
+     */
+    public long[] getSinks() {
+        return sinks;
+    }
+
+    /**
+     * Copper bulbs in the network, sorted. Callers must not modify the array.
+     */
+    public long[] getBulbs() {
+        return bulbs;
+    }
+
+    /**
+     * Powered blocks and wires feeding the network as of the last {@link #solveSignals}, sorted.
+     */
+    public long[] getSources() {
+        return sources;
+    }
+
+    /**
+     * Collects a traversal, then packs it. Members must be added at most once.
+     */
+    public static class Builder {
+        private long[] members = new long[16];
+        private byte[] resistances = new byte[16];
+        private int memberCount;
+        private long[] sinks = new long[8];
+        private int sinkCount;
+        private long[] bulbs = new long[8];
+        private int bulbCount;
+
+        public Builder addMember(long pos, int resistance) {
+            if (memberCount == members.length) {
+                members = Arrays.copyOf(members, memberCount * 2);
+                resistances = Arrays.copyOf(resistances, memberCount * 2);
+            }
+            members[memberCount] = pos;
+            resistances[memberCount++] = (byte) resistance;
+            return this;
+        }
+
+        public Builder addSink(long pos) {
+            if (sinkCount == sinks.length) {
+                sinks = Arrays.copyOf(sinks, sinkCount * 2);
+            }
+            sinks[sinkCount++] = pos;
+            return this;
+        }
+
+        public Builder addBulb(long pos) {
+            if (bulbCount == bulbs.length) {
+                bulbs = Arrays.copyOf(bulbs, bulbCount * 2);
+            }
+            bulbs[bulbCount++] = pos;
+            return this;
+        }
+
+        public CopperNetwork build() {
+            if (memberCount == 0) {
+                throw new IllegalStateException("A copper network needs at least one member");
+            }
+            return new CopperNetwork(this);
+        }
+    }
+}
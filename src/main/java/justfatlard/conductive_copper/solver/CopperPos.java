@@ -0,0 +1,57 @@
+package justfatlard.conductive_copper.solver;
+
+/**
+ * Packed block positions and direction indices without depending on Minecraft classes,
+ * so the solver can run outside the game (see CopperTraceReplayer).
+ *
+ * Positions use the same bit layout as BlockPos.asLong (26 bits X, 26 bits Z, 12 bits Y) and
+ * directions use Direction ordinals: DOWN, UP, NORTH, SOUTH, WEST, EAST.
+ */
+public final class CopperPos {
+    public static final int DIRECTIONS = 6;
+
+    private static final int SIZE_XZ = 26;
+    private static final int SIZE_Y = 12;
+    private static final int SHIFT_Z = SIZE_Y;
+    private static final int SHIFT_X = SIZE_Y + SIZE_XZ;
+    private static final long MASK_XZ = (1L << SIZE_XZ) - 1;
+    private static final long MASK_Y = (1L << SIZE_Y) - 1;
+
+    private static final int[] OFFSET_X = {0, 0, 0, 0, -1, 1};
+    private static final int[] OFFSET_Y = {-1, 1, 0, 0, 0, 0};
+    private static final int[] OFFSET_Z = {0, 0, -1, 1, 0, 0};
+
+    private CopperPos() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((x & MASK_XZ) << SHIFT_X) | ((z & MASK_XZ) << SHIFT_Z) | (y & MASK_Y);
+    }
+
+    public static int getX(long pos) {
+        return (int) (pos >> SHIFT_X);
+    }
+
+    public static int getY(long pos) {
+        return (int) (pos << (64 - SIZE_Y) >> (64 - SIZE_Y));
+    }
+
+    public static int getZ(long pos) {
+        return (int) (pos << (64 - SHIFT_X) >> (64 - SIZE_XZ));
+    }
+
+    public static long offset(long pos, int direction) {
+        return pack(getX(pos) + OFFSET_X[direction], getY(pos) + OFFSET_Y[direction], getZ(pos) + OFFSET_Z[direction]);
+    }
+
+    /**
+     * Directions come in opposite pairs, so flipping the low bit gives the opposite.
+     */
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    public static String toString(long pos) {
+        return getX(pos) + ", " + getY(pos) + ", " + getZ(pos);
+    }
+}
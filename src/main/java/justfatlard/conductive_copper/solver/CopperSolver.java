@@ -0,0 +1,13 @@
+package justfatlard.conductive_copper.solver;
+
+/**
+ * Computes the signal a copper network delivers at one of its blocks.
+ * Implementations must only read the world through the given view.
+ */
+public interface CopperSolver {
+    /**
+     * Signal strength received from the copper network containing copperPos, ignoring the
+     * neighbor in fromDirection (the block asking).
+     */
+    int getSignal(CopperView view, long copperPos, int fromDirection);
+}
@@ -0,0 +1,20 @@
+package justfatlard.conductive_copper.solver;
+
+/**
+ * Everything the copper solver needs to know about the world, keyed by packed position
+ * (see {@link CopperPos}). Implemented over a live World in game and over a recorded
+ * trace by the offline replayer.
+ */
+public interface CopperView {
+    /**
+     * Resistance of the conductive copper block at pos, or -1 if it isn't conductive copper.
+     */
+    int resistanceAt(long pos);
+
+    boolean isWire(long pos);
+
+    /**
+     * Redstone power (max of weak and strong) emitted by the block at pos, queried from direction.
+     */
+    int powerAt(long pos, int direction);
+}
@@ -0,0 +1,130 @@
+package justfatlard.conductive_copper.solver;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Uses Dijkstra's algorithm to find minimum-resistance paths through the copper network.
+ * Resistance is based on oxidation level: Unoxidized=0, Exposed=1, Weathered=2, Oxidized=3
+ * Final signal = source_power - accumulated_resistance
+ */
+public class DijkstraCopperSolver implements CopperSolver {
+
+    /**
+     * Helper class for Dijkstra priority queue - tracks position and accumulated resistance
+     */
+    private static class CopperNode implements Comparable<CopperNode> {
+        final long pos;
+        final int resistance;
+
+        CopperNode(long pos, int resistance) {
+            this.pos = pos;
+            this.resistance = resistance;
+        }
+
+        @Override
+        public int compareTo(CopperNode other) {
+            return Integer.compare(this.resistance, other.resistance);
+        }
+    }
+
+    @Override
+    public int getSignal(CopperView view, long copperPos, int fromDirection) {
+        Map<Long, Integer> minResistance = new HashMap<>();
+        PriorityQueue<CopperNode> toVisit = new PriorityQueue<>();
+        int maxSignal = 0;
+
+        int startResistance = Math.max(0, view.resistanceAt(copperPos));
+        toVisit.add(new CopperNode(copperPos, startResistance));
+        minResistance.put(copperPos, startResistance);
+
+        while (!toVisit.isEmpty()) {
+            CopperNode node = toVisit.poll();
+            long current = node.pos;
+            int currentResistance = node.resistance;
+
+            if (currentResistance > minResistance.getOrDefault(current, Integer.MAX_VALUE)) {
+                continue;
+            }
+
+            for (int dir = 0; dir < CopperPos.DIRECTIONS; dir++) {
+                long neighborPos = CopperPos.offset(current, dir);
+                int resistance = view.resistanceAt(neighborPos);
+
+                if (resistance >= 0) {
+                    int neighborResistance = currentResistance + resistance;
+
+                    if (neighborResistance < minResistance.getOrDefault(neighborPos, Integer.MAX_VALUE)) {
+                        minResistance.put(neighborPos, neighborResistance);
+                        toVisit.add(new CopperNode(neighborPos, neighborResistance));
+                    }
+                } else {
+                    // Skip the original direction we came from to avoid feedback loops
+                    if (current == copperPos && dir == fromDirection) {
+                        continue;
+                    }
+
+                    int power;
+
+                    // Special handling for redstone wire: trace through wire network to find
+                    // original power sources (levers, repeaters, etc.) - NOT copper-boosted power
+                    if (view.isWire(neighborPos)) {
+                        power = traceWireNetworkPower(view, neighborPos);
+                    } else {
+                        power = view.powerAt(neighborPos, CopperPos.opposite(dir));
+                    }
+
+                    if (power > 0) {
+                        int effectivePower = Math.max(0, power - currentResistance);
+                        maxSignal = Math.max(maxSignal, effectivePower);
+                    }
+                }
+            }
+        }
+
+        return maxSignal;
+    }
+
+    /**
+     * Trace through a wire network to find original power sources (levers, repeaters, etc.)
+     * This avoids using copper-boosted power values by following wires back to their source.
+     */
+    static int traceWireNetworkPower(CopperView view, long wirePos) {
+        Set<Long> visitedWires = new HashSet<>();
+        Queue<Long> wiresToCheck = new LinkedList<>();
+        int maxPower = 0;
+
+        wiresToCheck.add(wirePos);
+        visitedWires.add(wirePos);
+
+        while (!wiresToCheck.isEmpty()) {
+            long currentWire = wiresToCheck.poll();
+
+            for (int dir = 0; dir < CopperPos.DIRECTIONS; dir++) {
+                long adjacentPos = CopperPos.offset(currentWire, dir);
+
+                if (visitedWires.contains(adjacentPos)) {
+                    continue;
+                }
+
+                if (view.resistanceAt(adjacentPos) >= 0) {
+                    continue;
+                }
+
+                if (view.isWire(adjacentPos)) {
+                    visitedWires.add(adjacentPos);
+                    wiresToCheck.add(adjacentPos);
+                } else {
+                    maxPower = Math.max(maxPower, view.powerAt(adjacentPos, CopperPos.opposite(dir)));
+                }
+            }
+        }
+
+        return maxPower;
+    }
+}
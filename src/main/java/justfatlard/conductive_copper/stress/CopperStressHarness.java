@@ -0,0 +1,291 @@
+package justfatlard.conductive_copper.stress;
+
+import justfatlard.conductive_copper.ConductiveCopper;
+import justfatlard.conductive_copper.CopperCounters;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ * Builds stress scenarios in the world, runs them for a fixed number of ticks with clocked
+ * inputs and writes MSPT percentiles and solver counters to a CSV report.
+ *
+ * Runs either from /conductivecopper stress or, on a headless dedicated server, straight after
+ * startup when -Dconductive_copper.stress is set (see {@link #onServerStarted}).
+ */
+public final class CopperStressHarness {
+    public static final int DEFAULT_TICKS = 600;
+    public static final int MAX_TICKS = 72000;
+    public static final int MAX_SIZE = 64;
+
+    // Unmeasured ticks after building, so the first clock edges don't skew the numbers
+    private static final int WARMUP_TICKS = 20;
+    private static final int CLOCK_PERIOD = getBoundedProperty("conductive_copper.stress.period", 2, 1, MAX_TICKS);
+    private static final BlockPos HEADLESS_ORIGIN = new BlockPos(0, 100, 0);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Run current;
+    private static long tickStart;
+
+    private CopperStressHarness() {
+    }
+
+    private record Job(StressScenario scenario, int size) {
+    }
+
+    private static class Run {
+        final ServerWorld world;
+        final BlockPos origin;
+        final int ticks;
+        final Queue<Job> jobs;
+        final Consumer<String> feedback;
+        final boolean stopServer;
+        final List<String> rows = new ArrayList<>();
+
+        Job job;
+        StressSite site;
+        int tick;
+        long[] tickNanos;
+        long[] countersAtStart;
+
+        Run(ServerWorld world, BlockPos origin, int ticks, Queue<Job> jobs, Consumer<String> feedback, boolean stopServer) {
+            this.world = world;
+            this.origin = origin;
+            this.ticks = ticks;
+            this.jobs = jobs;
+            this.feedback = feedback;
+            this.stopServer = stopServer;
+        }
+    }
+
+    /**
+     * Queue the given scenarios at origin. Returns false if a run is already in progress.
+     */
+    public static boolean start(ServerWorld world, BlockPos origin, List<StressScenario> scenarios, int size, int ticks,
+            Consumer<String> feedback, boolean stopServer) {
+        if (current != null) {
+            return false;
+        }
+
+        Queue<Job> jobs = new LinkedList<>();
+        for (StressScenario scenario : scenarios) {
+            jobs.add(new Job(scenario, size));
+        }
+
+        current = new Run(world, origin, ticks, jobs, feedback, stopServer);
+        return true;
+    }
+
+    /**
+     * Headless entry point, e.g. -Dconductive_copper.stress=all -Dconductive_copper.stress.size=16
+     * -Dconductive_copper.stress.ticks=1200 -Dconductive_copper.stress.exit=true
+     */
+    public static void onServerStarted(MinecraftServer server) {
+        String spec = System.getProperty("conductive_copper.stress");
+
+        if (spec == null || spec.isBlank()) {
+            return;
+        }
+
+        List<StressScenario> scenarios = new ArrayList<>();
+        for (String id : spec.split(",")) {
+            id = id.trim().toLowerCase(Locale.ROOT);
+
+            if (id.equals("all")) {
+                scenarios.addAll(Arrays.asList(StressScenario.values()));
+            } else if (StressScenario.byId(id) != null) {
+                scenarios.add(StressScenario.byId(id));
+            } else {
+                ConductiveCopper.LOGGER.warn("Unknown stress scenario '{}'", id);
+            }
+        }
+
+        int size = getBoundedProperty("conductive_copper.stress.size", 8, 1, MAX_SIZE);
+        int ticks = getBoundedProperty("conductive_copper.stress.ticks", DEFAULT_TICKS, 1, MAX_TICKS);
+        boolean exit = Boolean.getBoolean("conductive_copper.stress.exit");
+
+        ConductiveCopper.LOGGER.info("Starting copper stress run: {} at size {} for {} ticks", scenarios, size, ticks);
+        start(server.getOverworld(), HEADLESS_ORIGIN, scenarios, size, ticks, ConductiveCopper.LOGGER::info, exit);
+    }
+
+    /**
+     * Same limits as the command; an exception in a tick event would take the server down instead.
+     */
+    private static int getBoundedProperty(String name, int fallback, int min, int max) {
+        String value = System.getProperty(name);
+
+        if (value == null) {
+            return fallback;
+        }
+
+        try {
+            int parsed = Integer.parseInt(value.trim());
+
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+
+        ConductiveCopper.LOGGER.warn("Ignoring {}={}, expected {} to {}; using {}", name, value, min, max, fallback);
+        return fallback;
+    }
+
+    public static void onStartTick(MinecraftServer server) {
+        tickStart = System.nanoTime();
+
+        Run run = current;
+        if (run == null) {
+            return;
+        }
+
+        if (run.site == null) {
+            nextJob(run, server);
+            return;
+        }
+
+        // Clock edges happen inside the measured window, they are part of the scenario's cost
+        if (run.tick % CLOCK_PERIOD == 0) {
+            run.site.setInputs((run.tick / CLOCK_PERIOD) % 2 == 0);
+        }
+    }
+
+    public static void onEndTick(MinecraftServer server) {
+        long elapsed = System.nanoTime() - tickStart;
+
+        Run run = current;
+        if (run == null || run.site == null) {
+            return;
+        }
+
+        int measured = run.tick - WARMUP_TICKS;
+
+        if (measured == -1) {
+            run.countersAtStart = CopperCounters.snapshot();
+        }
+
+        if (measured >= 0) {
+            run.tickNanos[measured] = elapsed;
+        }
+
+        run.tick++;
+
+        if (measured + 1 == run.ticks) {
+            finishJob(run);
+        }
+    }
+
+    private static void nextJob(Run run, MinecraftServer server) {
+        run.job = run.jobs.poll();
+
+        if (run.job == null) {
+            finishRun(run, server);
+            return;
+        }
+
+        StressSite site = new StressSite(run.world, run.origin);
+        run.job.scenario().build(site, run.job.size());
+
+        BlockPos blocked = site.build();
+        if (blocked != null) {
+            run.feedback.accept(String.format("Skipping %s: it would overwrite the block entity at %s",
+                run.job.scenario().id(), blocked.toShortString()));
+            return;
+        }
+
+        run.site = site;
+        run.tick = 0;
+        run.tickNanos = new long[run.ticks];
+        run.feedback.accept(String.format("Running %s (size %d, %d copper blocks) for %d ticks",
+            run.job.scenario().id(), run.job.size(), run.site.getCopperBlocks(), run.ticks));
+    }
+
+    private static void finishJob(Run run) {
+        long[] counters = CopperCounters.snapshot();
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= run.countersAtStart[i];
+        }
+
+        long[] sorted = run.tickNanos.clone();
+        Arrays.sort(sorted);
+
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1_000_000.0;
+        String row = String.format(Locale.ROOT, "%s,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d",
+            run.job.scenario().id(), run.job.size(), run.site.getCopperBlocks(), run.ticks,
+            mean, percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0),
+            counters[0], counters[1], counters[2], counters[3]);
+
+        run.rows.add(row);
+        run.feedback.accept(String.format(Locale.ROOT, "%s: mean %.2f ms, p99 %.2f ms, %d solver calls",
+            run.job.scenario().id(), mean, percentile(sorted, 0.99), counters[0]));
+
+        run.site.restore();
+        run.site = null;
+    }
+
+    /**
+     * Put back a run interrupted by the server stopping, so its build and forced chunks
+     * aren't saved with the world and the next world starts with no run in progress.
+     */
+    public static void onServerStopping(MinecraftServer server) {
+        Run run = current;
+        current = null;
+
+        if (run != null && run.site != null) {
+            run.site.restore();
+            ConductiveCopper.LOGGER.info("Copper stress run interrupted by server stop, scenario area restored");
+        }
+    }
+
+    private static void finishRun(Run run, MinecraftServer server) {
+        current = null;
+
+        try {
+            Path report = writeReport(run.rows);
+            run.feedback.accept("Copper stress report written to " + report);
+        } catch (IOException e) {
+            ConductiveCopper.LOGGER.error("Failed to write copper stress report", e);
+            run.feedback.accept("Failed to write copper stress report: " + e.getMessage());
+        }
+
+        if (run.stopServer) {
+            server.stop(false);
+        }
+    }
+
+    /**
+     * Nearest-rank percentile of sorted tick times, in milliseconds.
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    private static Path writeReport(List<String> rows) throws IOException {
+        Path dir = FabricLoader.getInstance().getGameDir().resolve(ConductiveCopper.MOD_ID).resolve("stress");
+        Files.createDirectories(dir);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("scenario,size,copper_blocks,ticks,mspt_mean,mspt_p50,mspt_p90,mspt_p99,mspt_max,"
+            + "solver_calls,propagations,neighbor_updates,deferred_updates");
+        lines.addAll(rows);
+
+        Path report = dir.resolve("stress-" + LocalDateTime.now().format(FILE_TIME) + ".csv");
+        Files.write(report, lines);
+        return report;
+    }
+}
@@ -0,0 +1,135 @@
+package justfatlard.conductive_copper.stress;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+
+import java.util.Locale;
+
+/**
+ * Parameterized copper builds for the stress harness. Every scenario is driven by clock inputs:
+ * redstone blocks that the harness toggles on a fixed period while it measures.
+ *
+ * Waxed copper is used throughout so the builds can't oxidize halfway through a run.
+ */
+public enum StressScenario {
+    /**
+     * Solid size x size x size cube of copper, one input on the west face, a row of wires along the east face.
+     */
+    LATTICE {
+        @Override
+        void build(StressSite site, int size) {
+            site.floor(-1, 0, size, size - 1);
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    for (int z = 0; z < size; z++) {
+                        site.copper(x, y, z, Blocks.WAXED_COPPER_BLOCK);
+                    }
+                }
+            }
+            site.input(-1, 0, 0);
+            for (int z = 0; z < size; z++) {
+                site.wire(size, 0, z);
+            }
+        }
+    },
+
+    /**
+     * Single copper line 16 x size blocks long, tapped by a wire every 8 blocks.
+     */
+    BUS {
+        @Override
+        void build(StressSite site, int size) {
+            int length = size * 16;
+            site.floor(-1, 0, length, 1);
+            for (int x = 0; x < length; x++) {
+                site.copper(x, 0, 0, Blocks.WAXED_COPPER_BLOCK);
+                if (x % 8 == 0) {
+                    site.wire(x, 0, 1);
+                }
+            }
+            site.input(-1, 0, 0);
+            site.wire(length, 0, 0);
+        }
+    },
+
+    /**
+     * Lattice with every oxidation level interleaved, so the solver has real path choices to make.
+     */
+    MIXED_OXIDATION {
+        @Override
+        void build(StressSite site, int size) {
+            site.floor(-1, 0, size, size - 1);
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    for (int z = 0; z < size; z++) {
+                        site.copper(x, y, z, OXIDATION_LEVELS[(x + y + z) % OXIDATION_LEVELS.length]);
+                    }
+                }
+            }
+            site.input(-1, 0, 0);
+            for (int z = 0; z < size; z++) {
+                site.wire(size, 0, z);
+            }
+        }
+    },
+
+    /**
+     * Copper bus fed from the side by size separate dust lines, each with its own clocked input.
+     */
+    DUST_FAN_IN {
+        @Override
+        void build(StressSite site, int size) {
+            site.floor(0, 0, size, 5);
+            for (int x = 0; x < size; x++) {
+                site.copper(x, 0, 0, Blocks.WAXED_COPPER_BLOCK);
+                for (int z = 1; z <= 4; z++) {
+                    site.wire(x, 0, z);
+                }
+                site.input(x, 0, 5);
+            }
+            site.wire(size, 0, 0);
+        }
+    },
+
+    /**
+     * Vertical size x size wall of copper bulbs, which conduct and toggle on every rising edge.
+     */
+    BULB_WALL {
+        @Override
+        void build(StressSite site, int size) {
+            site.floor(-1, 0, size, 0);
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    site.copper(x, y, 0, Blocks.WAXED_COPPER_BULB);
+                }
+            }
+            site.input(-1, 0, 0);
+            site.wire(size, 0, 0);
+        }
+    };
+
+    private static final Block[] OXIDATION_LEVELS = {
+        Blocks.WAXED_COPPER_BLOCK,
+        Blocks.WAXED_EXPOSED_COPPER,
+        Blocks.WAXED_WEATHERED_COPPER,
+        Blocks.WAXED_OXIDIZED_COPPER
+    };
+
+    /**
+     * Place the scenario's blocks relative to the site origin. The floor sits at y = -1.
+     */
+    abstract void build(StressSite site, int size);
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static StressScenario byId(String id) {
+        for (StressScenario scenario : values()) {
+            if (scenario.id().equals(id)) {
+                return scenario;
+            }
+        }
+        return null;
+    }
+}
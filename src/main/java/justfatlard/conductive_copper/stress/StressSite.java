@@ -0,0 +1,127 @@
+package justfatlard.conductive_copper.stress;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A scenario build placed in the world. Blocks are planned first and only placed by
+ * {@link #build}, which refuses to overwrite block entities since their contents can't
+ * be put back. Remembers every block it overwrote so the area can be restored once the
+ * run is over.
+ */
+class StressSite {
+    private final ServerWorld world;
+    private final BlockPos origin;
+    private final List<BlockPos> placed = new ArrayList<>();
+    private final List<BlockState> planned = new ArrayList<>();
+    private final List<BlockState> previous = new ArrayList<>();
+    private final List<BlockPos> inputs = new ArrayList<>();
+    private final Set<ChunkPos> forcedChunks = new HashSet<>();
+    private int copperBlocks;
+
+    StressSite(ServerWorld world, BlockPos origin) {
+        this.world = world;
+        this.origin = origin;
+    }
+
+    void floor(int minX, int minZ, int maxX, int maxZ) {
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                place(x, -1, z, Blocks.STONE.getDefaultState());
+            }
+        }
+    }
+
+    void copper(int x, int y, int z, Block block) {
+        place(x, y, z, block.getDefaultState());
+        copperBlocks++;
+    }
+
+    void wire(int x, int y, int z) {
+        place(x, y, z, Blocks.REDSTONE_WIRE.getDefaultState());
+    }
+
+    /**
+     * A clocked input: toggled between a redstone block and air while the scenario runs.
+     */
+    void input(int x, int y, int z) {
+        inputs.add(place(x, y, z, Blocks.AIR.getDefaultState()));
+    }
+
+    private BlockPos place(int x, int y, int z, BlockState state) {
+        BlockPos pos = origin.add(x, y, z);
+        placed.add(pos);
+        planned.add(state);
+        return pos;
+    }
+
+    /**
+     * Place the planned blocks. Returns the first position holding a block entity, in which
+     * case nothing is placed, or null once the build is in the world.
+     */
+    BlockPos build() {
+        for (BlockPos pos : placed) {
+            ChunkPos chunk = new ChunkPos(pos);
+
+            // Keep the build loaded for the whole run, but leave chunks someone else forced alone
+            if (!forcedChunks.contains(chunk) && world.setChunkForced(chunk.x, chunk.z, true)) {
+                forcedChunks.add(chunk);
+            }
+
+            if (world.getBlockEntity(pos) != null) {
+                unforceChunks();
+                return pos;
+            }
+        }
+
+        for (int i = 0; i < placed.size(); i++) {
+            BlockPos pos = placed.get(i);
+            previous.add(world.getBlockState(pos));
+
+            // Build silently; the first clock edge is what sets the network in motion
+            world.setBlockState(pos, planned.get(i), Block.NOTIFY_LISTENERS);
+        }
+
+        return null;
+    }
+
+    void setInputs(boolean powered) {
+        BlockState state = powered ? Blocks.REDSTONE_BLOCK.getDefaultState() : Blocks.AIR.getDefaultState();
+
+        for (BlockPos pos : inputs) {
+            world.setBlockState(pos, state, Block.NOTIFY_ALL);
+        }
+    }
+
+    int getCopperBlocks() {
+        return copperBlocks;
+    }
+
+    /**
+     * Put back everything the build replaced, last placed first so wires go before their floor.
+     */
+    void restore() {
+        for (int i = previous.size() - 1; i >= 0; i--) {
+            world.setBlockState(placed.get(i), previous.get(i), Block.NOTIFY_LISTENERS);
+        }
+
+        unforceChunks();
+    }
+
+    private void unforceChunks() {
+        for (ChunkPos chunk : forcedChunks) {
+            world.setChunkForced(chunk.x, chunk.z, false);
+        }
+
+        forcedChunks.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package justfatlard.conductive_copper.trace;
+
+/**
+ * Trace file format shared by the in-game recorder and the offline replayer.
+ *
+ * A trace is a gzipped DataOutput stream: the MAGIC int and VERSION byte, then tagged events.
+ * Block and power events are only written when a value is first read or has changed since it
+ * was last written, so the stream carries a running snapshot of exactly the blocks the solver
+ * and the propagation code touched.
+ *
+ * Positions are per dimension: a TICK event selects the dimension that the following block,
+ * power, query and propagation events belong to. Each dimension is named by a DIMENSION event
+ * before its first TICK.
+ *
+ *   DIMENSION   short id, UTF name
+ *   TICK        short dimension, long gameTime
+ *   BLOCK       long pos, byte state (copper resistance, or NOT_COPPER / WIRE)
+ *   POWER       long pos, byte direction, byte power
+ *   QUERY       byte hook, long pos, byte fromDirection, byte result
+ *   PROPAGATION byte trigger, long pos, int networkSize, int targets, boolean damped
+ *   END
+ *
+ * This class must not reference Minecraft so the replayer can run without the game.
+ */
+public final class CopperTrace {
+    public static final int MAGIC = 0x43435452; // "CCTR"
+    public static final byte VERSION = 2;
+
+    public static final byte TICK = 1;
+    public static final byte BLOCK = 2;
+    public static final byte POWER = 3;
+    public static final byte QUERY = 4;
+    public static final byte PROPAGATION = 5;
+    public static final byte DIMENSION = 6;
+    public static final byte END = 0;
+
+    public static final byte NOT_COPPER = -1;
+    public static final byte WIRE = -2;
+
+    public static final String EXTENSION = ".cctrace";
+
+    private CopperTrace() {
+    }
+
+    /**
+     * Where a solver query came from.
+     */
+    public enum Hook {
+        DIRECT,
+        WIRE_POWER,
+        BULB,
+        EMISSION
+    }
+
+    /**
+     * What started a copper network propagation.
+     */
+    public enum Trigger {
+        NEIGHBOR_UPDATE,
+        POWERED_WIRE
+    }
+}
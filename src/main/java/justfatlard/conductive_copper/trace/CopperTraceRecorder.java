@@ -0,0 +1,331 @@
+package justfatlard.conductive_copper.trace;
+
+import justfatlard.conductive_copper.ConductiveCopper;
+import justfatlard.conductive_copper.solver.CopperNetwork;
+import justfatlard.conductive_copper.solver.CopperPos;
+import justfatlard.conductive_copper.solver.CopperSolver;
+import justfatlard.conductive_copper.solver.CopperView;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records copper solver queries and propagations, with the blocks they read, to a trace file
+ * that CopperTraceReplayer can rerun outside the game. See {@link CopperTrace} for the format.
+ *
+ * Only used from the server thread.
+ */
+public final class CopperTraceRecorder {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static DataOutputStream out;
+    private static Path file;
+    private static long lastTick;
+    private static long queries;
+    private static long propagations;
+
+    private static final Map<RegistryKey<World>, Dimension> dimensions = new HashMap<>();
+    private static Dimension dimension;
+
+    private CopperTraceRecorder() {
+    }
+
+    /**
+     * Per-dimension snapshot state; the same position in two dimensions is two different blocks.
+     */
+    private static class Dimension {
+        final short id;
+
+        // Last state written for each position, so unchanged blocks aren't written again
+        final Map<Long, Byte> blocks = new HashMap<>();
+        final Map<Long, byte[]> powers = new HashMap<>();
+
+        Dimension(short id) {
+            this.id = id;
+        }
+    }
+
+    public static boolean isRecording() {
+        return out != null;
+    }
+
+    public static Path start() throws IOException {
+        if (out != null) {
+            return file;
+        }
+
+        Path dir = FabricLoader.getInstance().getGameDir().resolve(ConductiveCopper.MOD_ID).resolve("traces");
+        Files.createDirectories(dir);
+
+        file = dir.resolve("trace-" + LocalDateTime.now().format(FILE_TIME) + CopperTrace.EXTENSION);
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))));
+        out.writeInt(CopperTrace.MAGIC);
+        out.writeByte(CopperTrace.VERSION);
+
+        lastTick = Long.MIN_VALUE;
+        dimension = null;
+        queries = 0;
+        propagations = 0;
+
+        ConductiveCopper.LOGGER.info("Recording copper trace to {}", file);
+        return file;
+    }
+
+    /**
+     * Finish the trace file. Returns a short summary, or null if nothing was recording.
+     */
+    public static String stop() {
+        if (out == null) {
+            return null;
+        }
+
+        String summary = String.format("%d queries and %d propagations written to %s", queries, propagations, file);
+
+        try {
+            out.writeByte(CopperTrace.END);
+            out.close();
+            ConductiveCopper.LOGGER.info("Copper trace finished: {}", summary);
+        } catch (IOException e) {
+            ConductiveCopper.LOGGER.error("Failed to finish copper trace {}", file, e);
+        }
+
+        out = null;
+        dimensions.clear();
+        dimension = null;
+        return summary;
+    }
+
+    private static void fail(IOException e) {
+        ConductiveCopper.LOGGER.error("Copper trace recording stopped, failed to write {}", file, e);
+
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+
+        out = null;
+        dimensions.clear();
+        dimension = null;
+    }
+
+    /**
+     * Run the solver with every world read going into the trace, then record the query itself.
+     */
+    public static int recordQuery(World world, CopperTrace.Hook hook, CopperSolver solver, CopperView view,
+            BlockPos copperPos, Direction fromDirection) {
+        markTick(world);
+
+        int result = solver.getSignal(new RecordingView(view), copperPos.asLong(), fromDirection.ordinal());
+
+        if (out != null) {
+            try {
+                out.writeByte(CopperTrace.QUERY);
+                out.writeByte(hook.ordinal());
+                out.writeLong(copperPos.asLong());
+                out.writeByte(fromDirection.ordinal());
+                out.writeByte(result);
+                queries++;
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Record a propagation through network, snapshotting its copper blocks and the cells around
+     * them, so a block that has since left the network reads as not copper on replay.
+     */
+    public static void recordPropagation(World world, CopperTrace.Trigger trigger, BlockPos startPos,
+            CopperNetwork network, int targets, boolean damped) {
+        if (out == null || world.isClient()) {
+            return;
+        }
+
+        markTick(world);
+        network.forEachMember((pos, resistance) -> {
+            observeResistance(pos, resistance);
+
+            for (int dir = 0; dir < CopperPos.DIRECTIONS; dir++) {
+                long neighborPos = CopperPos.offset(pos, dir);
+
+                if (!network.contains(neighborPos)) {
+                    observeResistance(neighborPos, -1);
+
+                    if (Arrays.binarySearch(network.getSinks(), neighborPos) >= 0) {
+                        observeWire(neighborPos, true);
+                    }
+                }
+            }
+        });
+
+        if (out != null) {
+            try {
+                out.writeByte(CopperTrace.PROPAGATION);
+                out.writeByte(trigger.ordinal());
+                out.writeLong(startPos.asLong());
+                out.writeInt(network.getSize());
+                out.writeInt(targets);
+                out.writeBoolean(damped);
+                propagations++;
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private static void markTick(World world) {
+        if (out == null) {
+            return;
+        }
+
+        long tick = world.getTime();
+        Dimension previous = dimension;
+
+        try {
+            dimension = dimensions.get(world.getRegistryKey());
+
+            if (dimension == null) {
+                dimension = new Dimension((short) dimensions.size());
+                dimensions.put(world.getRegistryKey(), dimension);
+
+                out.writeByte(CopperTrace.DIMENSION);
+                out.writeShort(dimension.id);
+                out.writeUTF(world.getRegistryKey().getValue().toString());
+            }
+
+            if (tick == lastTick && dimension == previous) {
+                return;
+            }
+
+            lastTick = tick;
+
+            out.writeByte(CopperTrace.TICK);
+            out.writeShort(dimension.id);
+            out.writeLong(tick);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private static void writeBlock(long pos, byte state) {
+        if (out == null) {
+            return;
+        }
+
+        dimension.blocks.put(pos, state);
+
+        try {
+            out.writeByte(CopperTrace.BLOCK);
+            out.writeLong(pos);
+            out.writeByte(state);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private static void observeResistance(long pos, int resistance) {
+        if (out == null) {
+            return;
+        }
+
+        Byte known = dimension.blocks.get(pos);
+
+        if (resistance >= 0) {
+            if (known == null || known != resistance) {
+                writeBlock(pos, (byte) resistance);
+            }
+        } else if (known == null || known >= 0) {
+            // NOT_COPPER and WIRE both agree with "not copper", only rewrite if it was copper
+            writeBlock(pos, CopperTrace.NOT_COPPER);
+        }
+    }
+
+    private static void observeWire(long pos, boolean wire) {
+        if (out == null) {
+            return;
+        }
+
+        Byte known = dimension.blocks.get(pos);
+
+        if (wire && (known == null || known != CopperTrace.WIRE)) {
+            writeBlock(pos, CopperTrace.WIRE);
+        } else if (!wire && known != null && known == CopperTrace.WIRE) {
+            writeBlock(pos, CopperTrace.NOT_COPPER);
+        }
+    }
+
+    private static void observePower(long pos, int direction, int power) {
+        if (out == null) {
+            return;
+        }
+
+        byte[] known = dimension.powers.computeIfAbsent(pos, p -> {
+            byte[] unknown = new byte[CopperPos.DIRECTIONS];
+            Arrays.fill(unknown, (byte) -1);
+            return unknown;
+        });
+
+        if (known[direction] == power) {
+            return;
+        }
+
+        known[direction] = (byte) power;
+
+        try {
+            out.writeByte(CopperTrace.POWER);
+            out.writeLong(pos);
+            out.writeByte(direction);
+            out.writeByte(power);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Passes reads through to the live view and records what they returned.
+     */
+    private static class RecordingView implements CopperView {
+        private final CopperView delegate;
+
+        RecordingView(CopperView delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int resistanceAt(long pos) {
+            int resistance = delegate.resistanceAt(pos);
+            observeResistance(pos, resistance);
+            return resistance;
+        }
+
+        @Override
+        public boolean isWire(long pos) {
+            boolean wire = delegate.isWire(pos);
+            observeWire(pos, wire);
+            return wire;
+        }
+
+        @Override
+        public int powerAt(long pos, int direction) {
+            int power = delegate.powerAt(pos, direction);
+            observePower(pos, direction, power);
+            return power;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package justfatlard.conductive_copper.trace;
+
+import justfatlard.conductive_copper.solver.CopperPos;
+import justfatlard.conductive_copper.solver.CopperSolver;
+import justfatlard.conductive_copper.solver.DijkstraCopperSolver;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Standalone replayer for copper traces. Runs without Minecraft on the classpath:
+ *
+ *   java -cp conductive-copper.jar justfatlard.conductive_copper.trace.CopperTraceReplayer \
+ *       trace.cctrace [solver class] [passes]
+ *
+ * Every recorded query is re-solved against the recorded block snapshot with the given
+ * {@link CopperSolver} (default {@link DijkstraCopperSolver}). Reports solver throughput per
+ * pass and any results that differ from what the game saw. Exits with 1 on mismatches.
+ */
+public final class CopperTraceReplayer {
+    private static final int MAX_LISTED_MISMATCHES = 10;
+
+    private CopperTraceReplayer() {
+    }
+
+    private static class Result {
+        long ticks;
+        long gameTime;
+        long queries;
+        long propagations;
+        long dampedPropagations;
+        long solveNanos;
+        long mismatches;
+        long networkMismatches;
+        long unknownReads;
+        final long[] queriesByHook = new long[CopperTrace.Hook.values().length];
+        final List<String> listedMismatches = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: CopperTraceReplayer <trace" + CopperTrace.EXTENSION + "> [solver class] [passes]");
+            System.exit(2);
+        }
+
+        Path trace = Path.of(args[0]);
+        CopperSolver solver = args.length > 1
+            ? (CopperSolver) Class.forName(args[1]).getDeclaredConstructor().newInstance()
+            : new DijkstraCopperSolver();
+        int passes = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.println("Replaying " + trace + " with " + solver.getClass().getName());
+
+        Result result = null;
+        double bestRate = 0;
+
+        for (int pass = 1; pass <= passes; pass++) {
+            result = replay(trace, solver);
+
+            double millis = result.solveNanos / 1_000_000.0;
+            double rate = result.queries / Math.max(millis / 1000.0, 1e-9);
+            bestRate = Math.max(bestRate, rate);
+
+            System.out.printf(Locale.ROOT, "Pass %d: %d queries solved in %.2f ms (%.0f queries/s)%n",
+                pass, result.queries, millis, rate);
+        }
+
+        if (result == null) {
+            return;
+        }
+
+        System.out.printf(Locale.ROOT, "Best: %.0f queries/s%n", bestRate);
+        System.out.printf("Trace: %d tick events, %d queries, %d propagations (%d damped)%n",
+            result.ticks, result.queries, result.propagations, result.dampedPropagations);
+
+        for (CopperTrace.Hook hook : CopperTrace.Hook.values()) {
+            System.out.printf("  %s queries: %d%n", hook.name().toLowerCase(Locale.ROOT), result.queriesByHook[hook.ordinal()]);
+        }
+
+        System.out.println("Unknown reads (positions not in the snapshot): " + result.unknownReads);
+        System.out.println("Network size mismatches: " + result.networkMismatches);
+        System.out.println("Result mismatches: " + result.mismatches);
+
+        for (String mismatch : result.listedMismatches) {
+            System.out.println("  " + mismatch);
+        }
+
+        if (result.mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Result replay(Path trace, CopperSolver solver) throws IOException {
+        Result result = new Result();
+        Map<Short, String> dimensionNames = new HashMap<>();
+        Map<Short, TraceCopperView> views = new HashMap<>();
+        TraceCopperView view = null;
+        String dimensionName = null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(trace))))) {
+            if (in.readInt() != CopperTrace.MAGIC) {
+                throw new IOException("Not a copper trace: " + trace);
+            }
+
+            byte version = in.readByte();
+            if (version != CopperTrace.VERSION) {
+                throw new IOException("Unsupported copper trace version " + version);
+            }
+
+            while (true) {
+                byte tag = in.readByte();
+
+                if (view == null && tag != CopperTrace.END && tag != CopperTrace.DIMENSION && tag != CopperTrace.TICK) {
+                    throw new IOException("Corrupt copper trace, event " + tag + " before the first tick");
+                }
+
+                switch (tag) {
+                    case CopperTrace.END -> {
+                        for (TraceCopperView dimensionView : views.values()) {
+                            result.unknownReads += dimensionView.unknownReads;
+                        }
+                        return result;
+                    }
+                    case CopperTrace.DIMENSION -> dimensionNames.put(in.readShort(), in.readUTF());
+                    case CopperTrace.TICK -> {
+                        short dimension = in.readShort();
+                        if (!dimensionNames.containsKey(dimension)) {
+                            throw new IOException("Corrupt copper trace, undeclared dimension " + dimension);
+                        }
+
+                        view = views.computeIfAbsent(dimension, d -> new TraceCopperView());
+                        dimensionName = dimensionNames.get(dimension);
+                        result.gameTime = in.readLong();
+                        result.ticks++;
+                    }
+                    case CopperTrace.BLOCK -> view.setBlock(in.readLong(), in.readByte());
+                    case CopperTrace.POWER -> view.setPower(in.readLong(), in.readByte(), in.readByte());
+                    case CopperTrace.QUERY -> replayQuery(in, solver, view, dimensionName, result);
+                    case CopperTrace.PROPAGATION -> replayPropagation(in, view, result);
+                    default -> throw new IOException("Corrupt copper trace, unknown event " + tag);
+                }
+            }
+        }
+    }
+
+    private static void replayQuery(DataInputStream in, CopperSolver solver, TraceCopperView view, String dimension,
+            Result result) throws IOException {
+        CopperTrace.Hook hook = CopperTrace.Hook.values()[in.readByte()];
+        long pos = in.readLong();
+        int fromDirection = in.readByte();
+        int expected = in.readByte();
+
+        long start = System.nanoTime();
+        int actual = solver.getSignal(view, pos, fromDirection);
+        result.solveNanos += System.nanoTime() - start;
+
+        result.queries++;
+        result.queriesByHook[hook.ordinal()]++;
+
+        if (actual != expected) {
+            result.mismatches++;
+
+            if (result.listedMismatches.size() < MAX_LISTED_MISMATCHES) {
+                result.listedMismatches.add(String.format("game time %d %s at %s in %s from %d: expected %d, got %d",
+                    result.gameTime, hook, CopperPos.toString(pos), dimension, fromDirection, expected, actual));
+            }
+        }
+    }
+
+    private static void replayPropagation(DataInputStream in, TraceCopperView view, Result result) throws IOException {
+        in.readByte();
+        long startPos = in.readLong();
+        int networkSize = in.readInt();
+        in.readInt();
+        boolean damped = in.readBoolean();
+
+        result.propagations++;
+        if (damped) {
+            result.dampedPropagations++;
+        }
+
+        // The recorded network is all in the snapshot; its unrecorded surroundings aren't "unknown" here
+        long unknownReads = view.unknownReads;
+        if (countNetwork(view, startPos) != networkSize) {
+            result.networkMismatches++;
+        }
+        view.unknownReads = unknownReads;
+    }
+
+    private static int countNetwork(TraceCopperView view, long startPos) {
+        Set<Long> visited = new HashSet<>();
+        Queue<Long> toVisit = new LinkedList<>();
+
+        toVisit.add(startPos);
+        visited.add(startPos);
+
+        while (!toVisit.isEmpty()) {
+            long current = toVisit.poll();
+
+            for (int dir = 0; dir < CopperPos.DIRECTIONS; dir++) {
+                long neighborPos = CopperPos.offset(current, dir);
+
+                if (!visited.contains(neighborPos) && view.resistanceAt(neighborPos) >= 0) {
+                    visited.add(neighborPos);
+                    toVisit.add(neighborPos);
+                }
+            }
+        }
+
+        return visited.size();
+    }
+}
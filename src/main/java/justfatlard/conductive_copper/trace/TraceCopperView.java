@@ -0,0 +1,59 @@
+package justfatlard.conductive_copper.trace;
+
+import justfatlard.conductive_copper.solver.CopperPos;
+import justfatlard.conductive_copper.solver.CopperView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link CopperView} over the block snapshot rebuilt from a trace. Positions the recorded
+ * solver never read are treated as plain unpowered blocks and counted as unknown reads.
+ */
+class TraceCopperView implements CopperView {
+    private final Map<Long, Byte> blocks = new HashMap<>();
+    private final Map<Long, byte[]> powers = new HashMap<>();
+    long unknownReads;
+
+    void setBlock(long pos, byte state) {
+        blocks.put(pos, state);
+    }
+
+    void setPower(long pos, int direction, int power) {
+        powers.computeIfAbsent(pos, p -> new byte[CopperPos.DIRECTIONS])[direction] = (byte) power;
+    }
+
+    private byte getState(long pos) {
+        Byte state = blocks.get(pos);
+
+        if (state == null) {
+            unknownReads++;
+            return CopperTrace.NOT_COPPER;
+        }
+
+        return state;
+    }
+
+    @Override
+    public int resistanceAt(long pos) {
+        byte state = getState(pos);
+        return state >= 0 ? state : -1;
+    }
+
+    @Override
+    public boolean isWire(long pos) {
+        return getState(pos) == CopperTrace.WIRE;
+    }
+
+    @Override
+    public int powerAt(long pos, int direction) {
+        byte[] power = powers.get(pos);
+
+        if (power == null) {
+            unknownReads++;
+            return 0;
+        }
+
+        return power[direction];
+    }
+}
@@ -0,0 +1,123 @@
+package justfatlard.conductive_copper.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CopperNetworkTest {
+
+    /**
+     * A run along three edges of a 150 block cube: 448 blocks in a box of over three million cells.
+     */
+    private static List<Long> cornerRun() {
+        List<Long> members = new ArrayList<>();
+
+        for (int x = 0; x < 150; x++) {
+            members.add(CopperPos.pack(x, 0, 0));
+        }
+        for (int y = 1; y < 150; y++) {
+            members.add(CopperPos.pack(149, y, 0));
+        }
+        for (int z = 1; z < 150; z++) {
+            members.add(CopperPos.pack(149, 149, z));
+        }
+
+        return members;
+    }
+
+    private static List<Long> cube(int size) {
+        List<Long> members = new ArrayList<>();
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                for (int z = 0; z < size; z++) {
+                    members.add(CopperPos.pack(x, y, z));
+                }
+            }
+        }
+
+        return members;
+    }
+
+    private static CopperNetwork build(List<Long> members) {
+        CopperNetwork.Builder builder = new CopperNetwork.Builder();
+
+        for (long pos : members) {
+            builder.addMember(pos, resistanceOf(pos));
+        }
+
+        return builder.build();
+    }
+
+    private static int resistanceOf(long pos) {
+        return Math.floorMod(CopperPos.getX(pos) + CopperPos.getY(pos) + CopperPos.getZ(pos), 4);
+    }
+
+    private static long volumeOf(CopperNetwork network) {
+        long min = network.getMin();
+        long max = network.getMax();
+
+        return (long) (CopperPos.getX(max) - CopperPos.getX(min) + 1)
+            * (CopperPos.getY(max) - CopperPos.getY(min) + 1)
+            * (CopperPos.getZ(max) - CopperPos.getZ(min) + 1);
+    }
+
+    @Test
+    void sparseRunUsesSortedList() {
+        List<Long> members = cornerRun();
+        CopperNetwork network = build(members);
+
+        assertEquals(448, network.getSize());
+        assertFalse(network.isDense());
+        assertFalse(network.contains(CopperPos.pack(1, 1, 1)));
+        assertTrue(network.estimateBytes() <= members.size() * 12L,
+            "sparse network takes " + network.estimateBytes() + " bytes");
+    }
+
+    @Test
+    void filledBoxUsesBitset() {
+        List<Long> members = cube(16);
+        CopperNetwork network = build(members);
+
+        assertTrue(network.isDense());
+        assertTrue(network.estimateBytes() <= members.size() * 2L,
+            "dense network takes " + network.estimateBytes() + " bytes");
+    }
+
+    @Test
+    void encodingNeverLargerThanTheAlternative() {
+        for (List<Long> members : List.of(cornerRun(), cube(4), cube(16), List.of(CopperPos.pack(5, -60, 7)))) {
+            CopperNetwork network = build(members);
+            long bitsetBytes = (volumeOf(network) + 63) / 64 * 12;
+
+            assertEquals(bitsetBytes <= members.size() * 8L, network.isDense());
+        }
+    }
+
+    @Test
+    void membersAndResistanceSurviveBothEncodings() {
+        for (List<Long> members : List.of(cornerRun(), cube(8))) {
+            CopperNetwork network = build(members);
+            Map<Long, Integer> visited = new HashMap<>();
+
+            network.forEachMember(visited::put);
+
+            assertEquals(members.size(), visited.size());
+            for (long pos : members) {
+                assertTrue(network.contains(pos));
+                assertEquals(resistanceOf(pos), network.getResistance(pos));
+                assertEquals(resistanceOf(pos), visited.get(pos));
+            }
+
+            assertFalse(network.contains(CopperPos.pack(-1, 0, 0)));
+            assertEquals(-1, network.getResistance(CopperPos.pack(200, 200, 200)));
+        }
+    }
+}